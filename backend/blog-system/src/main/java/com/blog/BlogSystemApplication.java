@@ -3,9 +3,11 @@ package com.blog;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.servlet.ServletComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ServletComponentScan  // 扫描Jakarta EE的Servlet、Filter注解
+@EnableScheduling      // 开启定时任务（计数器定时写回等）
 public class BlogSystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(BlogSystemApplication.class, args);
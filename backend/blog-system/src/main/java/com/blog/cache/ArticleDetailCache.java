@@ -0,0 +1,116 @@
+package com.blog.cache;
+
+import com.blog.dao.ArticleMapper;
+import com.blog.entity.Article;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章详情本地缓存
+ * 1. 缓存 article + 作者 + 分类 的联表结果（含完整正文），按正文大小计算权重
+ * 2. 文章创建/更新/删除时失效，事务提交后再失效一次；加载期间该文章被修改时不缓存加载结果，避免并发读把旧数据写回缓存
+ * 3. 缓存中保存的是副本，读取时也返回副本，调用方修改返回值不会影响缓存
+ */
+@Component
+public class ArticleDetailCache {
+
+    /**
+     * 每个缓存条目的固定开销估算（对象头、关联字段等）
+     */
+    private static final long ENTRY_OVERHEAD = 256;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.article-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${blog.article-cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    private VersionedLoader<Integer, Article> loader;
+
+    @PostConstruct
+    public void init() {
+        WeightedLruCache<Integer, Article> cache =
+                new WeightedLruCache<>(maxBytes, expireAfterWriteMs, ArticleDetailCache::weigh);
+        cache.bindMetrics(meterRegistry, "articleDetail");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 获取文章详情（不限制状态），缓存未命中时查询数据库
+     */
+    public Article get(Integer id) {
+        Article article = loader.get(id, articleMapper::findByIdWithoutStatus);
+        return article == null ? null : copyOf(article);
+    }
+
+    /**
+     * 使文章缓存失效
+     */
+    public void invalidate(Integer id) {
+        loader.invalidate(id);
+    }
+
+    /**
+     * 使所有文章缓存失效
+     */
+    public void invalidateAll() {
+        loader.invalidateAll();
+    }
+
+    /**
+     * 阅读量写回数据库后，同步累加缓存中的阅读量
+     */
+    public void addViewCount(Integer id, long delta) {
+        loader.update(id, article -> {
+            Article updated = copyOf(article);
+            long viewCount = (article.getViewCount() == null ? 0 : article.getViewCount()) + delta;
+            updated.setViewCount((int) Math.min(viewCount, Integer.MAX_VALUE));
+            return updated;
+        });
+    }
+
+    private static long weigh(Article article) {
+        // Java字符串按UTF-16估算，每个字符2字节
+        return ENTRY_OVERHEAD + 2L * (length(article.getContent())
+                + length(article.getTitle())
+                + length(article.getSummary())
+                + length(article.getTags()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static Article copyOf(Article source) {
+        Article target = new Article();
+        target.setId(source.getId());
+        target.setTitle(source.getTitle());
+        target.setContent(source.getContent());
+        target.setSummary(source.getSummary());
+        target.setCoverImage(source.getCoverImage());
+        target.setStatus(source.getStatus());
+        target.setViewCount(source.getViewCount());
+        target.setLikeCount(source.getLikeCount());
+        target.setCommentCount(source.getCommentCount());
+        target.setUserId(source.getUserId());
+        target.setCategoryId(source.getCategoryId());
+        target.setAuthorName(source.getAuthorName());
+        target.setAuthorAvatar(source.getAuthorAvatar());
+        target.setCategoryName(source.getCategoryName());
+        target.setIsTop(source.getIsTop());
+        target.setAllowComment(source.getAllowComment());
+        target.setTags(source.getTags());
+        target.setCreateTime(source.getCreateTime());
+        target.setUpdateTime(source.getUpdateTime());
+        return target;
+    }
+}
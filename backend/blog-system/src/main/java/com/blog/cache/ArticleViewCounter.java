@@ -0,0 +1,149 @@
+package com.blog.cache;
+
+import com.blog.dao.ArticleMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 文章阅读量写回计数器
+ * 1. 阅读时只在内存中累加（每篇文章一个LongAdder）
+ * 2. 定时把累积的增量合并成 UPDATE ... CASE id 批量写回数据库
+ * 3. 读取时返回 数据库值 + 尚未写回的增量
+ * 4. 写回后归零的计数器从内存中移除，内存只保留最近有阅读的文章；累加与移除都在 ConcurrentHashMap 的同一个映射操作内完成，
+ *    不会出现累加到已被移除的计数器上；定时任务和关闭时的写回互斥，同一增量不会写两次
+ */
+@Slf4j
+@Component
+public class ArticleViewCounter {
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticleDetailCache articleDetailCache;
+
+    @Autowired
+    private UserProfileStats userProfileStats;
+
+    @Value("${blog.view-counter.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 文章ID -> 尚未写回的阅读增量
+     */
+    private final ConcurrentHashMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 记录一次阅读
+     */
+    public void increment(Integer articleId) {
+        if (articleId == null) {
+            return;
+        }
+        pending.compute(articleId, (id, adder) -> {
+            if (adder == null) {
+                adder = new LongAdder();
+            }
+            adder.increment();
+            return adder;
+        });
+    }
+
+    /**
+     * 获取尚未写回数据库的阅读增量
+     */
+    public long getPending(Integer articleId) {
+        LongAdder adder = articleId == null ? null : pending.get(articleId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 数据库阅读量 + 内存增量
+     */
+    public int getViewCount(Integer articleId, Integer storedCount) {
+        long total = (storedCount == null ? 0 : storedCount) + getPending(articleId);
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 定时批量写回
+     */
+    @Scheduled(fixedDelayString = "${blog.view-counter.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            Map<Integer, Long> batch = new HashMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : pending.entrySet()) {
+                long delta = entry.getValue().sum();
+                if (delta > 0) {
+                    batch.put(entry.getKey(), delta);
+                } else if (delta == 0) {
+                    removeIfIdle(entry.getKey());
+                }
+
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    batch = new HashMap<>();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 写回一批增量，成功后再从内存中扣减（失败则保留，下次重试）
+     */
+    private void writeBatch(Map<Integer, Long> batch) {
+        try {
+            articleMapper.batchIncrementViewCount(batch);
+            for (Map.Entry<Integer, Long> entry : batch.entrySet()) {
+                LongAdder adder = pending.get(entry.getKey());
+                if (adder != null) {
+                    adder.add(-entry.getValue());
+                    // 写回期间没有新的阅读则移除，下次阅读时重新创建
+                    removeIfIdle(entry.getKey());
+                }
+                articleDetailCache.addViewCount(entry.getKey(), entry.getValue());
+            }
+            userProfileStats.onViewsFlushed(batch);
+        } catch (Exception e) {
+            log.error("批量写回阅读量失败, 文章数: {}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 计数器归零时移除，判断与移除在同一个映射操作内，期间的阅读不会累加到已移除的计数器上
+     */
+    private void removeIfIdle(Integer articleId) {
+        pending.computeIfPresent(articleId, (id, adder) -> adder.sum() == 0 ? null : adder);
+    }
+
+    /**
+     * 应用关闭前把剩余增量写回
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
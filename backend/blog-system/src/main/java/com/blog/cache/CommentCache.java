@@ -0,0 +1,201 @@
+package com.blog.cache;
+
+import com.blog.dao.CommentMapper;
+import com.blog.entity.Comment;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * 文章评论本地缓存
+ * 1. 每篇文章缓存一份全部可见评论（含评论人、被回复人信息，按时间正序），列表和评论树都由它生成
+ * 2. 评论新增/修改/删除/点赞在事务提交后直接修改缓存中的列表，不整篇失效
+ * 3. 按评论内容大小计算权重，超过总上限时淘汰最久未访问的文章；命中率等指标注册到Micrometer
+ * 4. 每篇文章有版本号：加载期间该文章有写入时放弃写缓存，避免把加载时读到的旧数据放回去
+ * 5. 缓存中保存的是不可变列表和不再修改的评论副本，修改时整体替换；getComments 直接返回缓存中的列表（只读），
+ *    需要修改评论（加点赞增量、组装子评论）时用 getPage / copyComments，只复制要返回的部分
+ */
+@Component
+public class CommentCache {
+
+    /**
+     * 每条评论的固定开销估算（对象头、时间字符串、关联字段等）
+     */
+    private static final long COMMENT_OVERHEAD = 192;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.comment-cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${blog.comment-cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    private VersionedLoader<Integer, List<Comment>> loader;
+
+    @PostConstruct
+    public void init() {
+        WeightedLruCache<Integer, List<Comment>> cache =
+                new WeightedLruCache<>(maxBytes, expireAfterWriteMs, CommentCache::weigh);
+        cache.bindMetrics(meterRegistry, "articleComments");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 获取文章的全部可见评论（平铺，按时间正序），缓存未命中时查询数据库
+     * 返回缓存中的不可变列表，元素与缓存共享，调用方不能修改其中的评论
+     */
+    public List<Comment> getComments(Integer articleId) {
+        List<Comment> comments = loader.get(articleId, id -> List.copyOf(commentMapper.findAllByArticleId(id)));
+        return comments == null ? List.of() : comments;
+    }
+
+    /**
+     * 获取一页评论的副本，只复制这一页
+     */
+    public List<Comment> getPage(Integer articleId, int offset, int size) {
+        List<Comment> comments = getComments(articleId);
+        if (offset >= comments.size() || size <= 0) {
+            return new ArrayList<>();
+        }
+        return copyOf(comments.subList(offset, Math.min(offset + size, comments.size())));
+    }
+
+    /**
+     * 获取文章全部评论的副本，用于组装评论树等需要修改评论的场景
+     */
+    public List<Comment> copyComments(Integer articleId) {
+        return copyOf(getComments(articleId));
+    }
+
+    /**
+     * 新增评论（comment 需包含评论人等关联字段）
+     */
+    public void onCreated(Comment comment) {
+        Comment snapshot = copyOf(comment);
+        loader.updateAfterCommit(snapshot.getArticleId(), comments -> {
+            List<Comment> updated = new ArrayList<>(comments.size() + 1);
+            updated.addAll(comments);
+            updated.add(snapshot);
+            return List.copyOf(updated);
+        });
+    }
+
+    /**
+     * 评论内容修改
+     */
+    public void onUpdated(Comment comment) {
+        Integer id = comment.getId();
+        String content = comment.getContent();
+        String updateTime = comment.getUpdateTime();
+        loader.updateAfterCommit(comment.getArticleId(), comments -> replace(comments, id, c -> {
+            Comment updated = copyOf(c);
+            updated.setContent(content);
+            updated.setUpdateTime(updateTime);
+            return updated;
+        }));
+    }
+
+    /**
+     * 评论删除
+     */
+    public void onDeleted(Comment comment) {
+        Integer id = comment.getId();
+        loader.updateAfterCommit(comment.getArticleId(), comments -> replace(comments, id, c -> null));
+    }
+
+    /**
+     * 评论点赞数变化
+     */
+    public void onLikeCountChanged(Integer articleId, Integer commentId, int delta) {
+        loader.updateAfterCommit(articleId, comments -> replace(comments, commentId, c -> {
+            Comment updated = copyOf(c);
+            updated.setLikeCount(Math.max(0, (c.getLikeCount() == null ? 0 : c.getLikeCount()) + delta));
+            return updated;
+        }));
+    }
+
+    /**
+     * 使文章评论缓存失效
+     */
+    public void invalidate(Integer articleId) {
+        loader.updateAfterCommit(articleId, comments -> null);
+    }
+
+    /**
+     * 替换（或在 replacement 返回null时删除）指定ID的评论，返回新列表
+     */
+    private static List<Comment> replace(List<Comment> comments, Integer id, UnaryOperator<Comment> replacement) {
+        List<Comment> updated = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            if (Objects.equals(comment.getId(), id)) {
+                Comment replaced = replacement.apply(comment);
+                if (replaced != null) {
+                    updated.add(replaced);
+                }
+            } else {
+                updated.add(comment);
+            }
+        }
+        return List.copyOf(updated);
+    }
+
+    private static long weigh(List<Comment> comments) {
+        long weight = 0;
+        for (Comment comment : comments) {
+            // Java字符串按UTF-16估算，每个字符2字节
+            weight += COMMENT_OVERHEAD + 2L * (length(comment.getContent())
+                    + length(comment.getUsername())
+                    + length(comment.getUserAvatar())
+                    + length(comment.getReplyUsername()));
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static List<Comment> copyOf(List<Comment> source) {
+        List<Comment> target = new ArrayList<>(source.size());
+        for (Comment comment : source) {
+            target.add(copyOf(comment));
+        }
+        return target;
+    }
+
+    /**
+     * 复制评论的数据库字段和关联字段（不复制子评论列表等组装结果）
+     */
+    private static Comment copyOf(Comment source) {
+        Comment target = new Comment();
+        target.setId(source.getId());
+        target.setContent(source.getContent());
+        target.setArticleId(source.getArticleId());
+        target.setUserId(source.getUserId());
+        target.setParentId(source.getParentId());
+        target.setRootId(source.getRootId());
+        target.setReplyUserId(source.getReplyUserId());
+        target.setLikeCount(source.getLikeCount());
+        target.setStatus(source.getStatus());
+        target.setCreateTime(source.getCreateTime());
+        target.setUpdateTime(source.getUpdateTime());
+        target.setIpAddress(source.getIpAddress());
+        target.setUserAgent(source.getUserAgent());
+        target.setUsername(source.getUsername());
+        target.setUserAvatar(source.getUserAvatar());
+        target.setReplyUsername(source.getReplyUsername());
+        return target;
+    }
+}
@@ -0,0 +1,108 @@
+package com.blog.cache;
+
+import com.blog.dao.UserMapper;
+import com.blog.entity.vo.FollowCountVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 关注数 / 粉丝数热点缓存
+ * 1. 计数持久化在 user.following_count / user.follower_count，关注和取消关注时与关注记录在同一事务内更新
+ * 2. 内存中按用户缓存两项计数，未命中时按主键读取 user 表，不再对 user_follow 做 COUNT(*)
+ * 3. 关注关系变化在事务提交后增量更新内存；加载期间该用户有写入时放弃缓存
+ * 4. 定时对账：按 user_follow 重新计算两列（只更新不一致的行），并清空内存计数；
+ *    启动后立即执行第一次，新增计数列后的初始化也由它完成，不在 data.sql 中每次启动全表重算
+ */
+@Slf4j
+@Component
+public class FollowCountCache {
+
+    private static final int FOLLOWING = 0;
+    private static final int FOLLOWERS = 1;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.follow-counts.max-users:50000}")
+    private long maxUsers;
+
+    private VersionedLoader<Integer, AtomicIntegerArray> loader;
+
+    @PostConstruct
+    public void init() {
+        WeightedLruCache<Integer, AtomicIntegerArray> cache = new WeightedLruCache<>(maxUsers, 0, counters -> 1);
+        cache.bindMetrics(meterRegistry, "followCount");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 获取用户的关注数和粉丝数
+     */
+    public FollowCountVO get(Integer userId) {
+        FollowCountVO countVO = new FollowCountVO();
+        AtomicIntegerArray counters = loader.get(userId, this::load);
+        if (counters == null) {
+            // 用户不存在
+            counters = new AtomicIntegerArray(2);
+        }
+        countVO.setFollowingCount(Math.max(0, counters.get(FOLLOWING)));
+        countVO.setFollowerCount(Math.max(0, counters.get(FOLLOWERS)));
+        return countVO;
+    }
+
+    private AtomicIntegerArray load(Integer userId) {
+        FollowCountVO stored = userMapper.selectFollowCounts(userId);
+        if (stored == null) {
+            return null;
+        }
+        AtomicIntegerArray counters = new AtomicIntegerArray(2);
+        counters.set(FOLLOWING, valueOf(stored.getFollowingCount()));
+        counters.set(FOLLOWERS, valueOf(stored.getFollowerCount()));
+        return counters;
+    }
+
+    /**
+     * 关注（delta=1）/ 取消关注（delta=-1），在事务提交后更新内存计数
+     */
+    public void onFollowChanged(Integer followerId, Integer followingId, int delta) {
+        loader.updateAfterCommit(followerId, counters -> add(counters, FOLLOWING, delta));
+        loader.updateAfterCommit(followingId, counters -> add(counters, FOLLOWERS, delta));
+    }
+
+    private static AtomicIntegerArray add(AtomicIntegerArray counters, int index, int delta) {
+        counters.addAndGet(index, delta);
+        return counters;
+    }
+
+    /**
+     * 定时对账：按 user_follow 校正 user 表上的关注数、粉丝数，并让内存计数下次查询时重新加载
+     */
+    @Scheduled(fixedDelayString = "${blog.follow-counts.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            int updated = userMapper.refreshFollowCounts();
+            if (updated > 0) {
+                log.info("关注计数对账完成，修正用户数: {}", updated);
+            }
+        } catch (Exception e) {
+            log.error("关注计数对账失败", e);
+            return;
+        }
+
+        loader.invalidateAll();
+    }
+
+    private static int valueOf(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,131 @@
+package com.blog.cache;
+
+import com.blog.dao.FollowMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 关注关系邻接表本地缓存（只缓存“某用户关注了谁”这一个方向）
+ * 1. 列表页判断互相关注时，先用缓存的关注集合判断，缓存中没有的用户用一条 IN 查询批量补齐
+ * 2. 关注的人超过 max-following-per-user 的用户不缓存，直接走批量查询
+ * 3. 总大小按边数计算；关注/取消关注在事务提交后增量更新缓存，加载期间该用户有写入时放弃缓存
+ */
+@Component
+public class FollowGraphCache {
+
+    @Autowired
+    private FollowMapper followMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.follow-graph.max-edges:1000000}")
+    private long maxEdges;
+
+    @Value("${blog.follow-graph.max-following-per-user:5000}")
+    private int maxFollowingPerUser;
+
+    @Value("${blog.follow-graph.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    /**
+     * 用户ID -> 他关注的用户ID集合（不可变，变化时整体替换）
+     */
+    private WeightedLruCache<Integer, Set<Integer>> cache;
+
+    private VersionedLoader<Integer, Set<Integer>> loader;
+
+    @PostConstruct
+    public void init() {
+        cache = new WeightedLruCache<>(maxEdges, expireAfterWriteMs, Set::size);
+        cache.bindMetrics(meterRegistry, "followGraph");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 在 candidates 中找出 followerId 关注了哪些（粉丝列表的“我是否回关”）
+     */
+    public Set<Integer> followingAmong(Integer followerId, Collection<Integer> candidates) {
+        if (followerId == null || candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Integer> following = followingOf(followerId);
+        if (following == null) {
+            return new HashSet<>(followMapper.selectFollowingAmong(followerId, candidates));
+        }
+
+        Set<Integer> result = new HashSet<>();
+        for (Integer id : candidates) {
+            if (following.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在 candidates 中找出哪些关注了 followingId（关注列表的“对方是否关注我”）
+     * 缓存中有关注集合的用户直接判断，其余用户一次批量查询
+     */
+    public Set<Integer> followersAmong(Integer followingId, Collection<Integer> candidates) {
+        if (followingId == null || candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Integer> result = new HashSet<>();
+        List<Integer> misses = new ArrayList<>();
+        for (Integer id : candidates) {
+            Set<Integer> following = cache.get(id);
+            if (following == null) {
+                misses.add(id);
+            } else if (following.contains(followingId)) {
+                result.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            result.addAll(followMapper.selectFollowersAmong(followingId, misses));
+        }
+        return result;
+    }
+
+    /**
+     * 用户关注的全部用户ID，关注数超过上限时返回null（不缓存）
+     */
+    private Set<Integer> followingOf(Integer userId) {
+        return loader.get(userId, id -> {
+            // 多查一条用于判断是否超过上限
+            List<Integer> ids = followMapper.selectFollowingIds(id, maxFollowingPerUser + 1);
+            return ids.size() > maxFollowingPerUser ? null : Set.copyOf(ids);
+        });
+    }
+
+    /**
+     * 关注（following=true）/ 取消关注（following=false），在事务提交后更新关注者的关注集合
+     */
+    public void onFollowChanged(Integer followerId, Integer followingId, boolean following) {
+        if (followerId == null || followingId == null) {
+            return;
+        }
+
+        loader.updateAfterCommit(followerId, current -> {
+            Set<Integer> updated = new HashSet<>(current);
+            if (following) {
+                updated.add(followingId);
+            } else {
+                updated.remove(followingId);
+            }
+            // 超过上限后不再缓存
+            return updated.size() > maxFollowingPerUser ? null : Set.copyOf(updated);
+        });
+    }
+}
@@ -0,0 +1,252 @@
+package com.blog.cache;
+
+import com.blog.dao.UserMapper;
+import com.blog.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户最后活动时间、最后登录信息写合并
+ * 1. 每次请求只在内存中记录 用户ID -> 最后活动时间（毫秒），不查库也不写库
+ * 2. 定时把有变化的用户合并成 UPDATE ... CASE id 批量写回 user.last_active_time
+ * 3. 在线状态和在线用户列表直接从内存判断；超出在线时间窗口且已写回的记录定时清理
+ * 4. 启动时从数据库加载最近在线的用户，重启后在线状态不丢失
+ * 5. 登录时间和IP同样先记在内存，随活动时间一起批量写回 last_login_time / last_login_ip
+ */
+@Slf4j
+@Component
+public class UserActivityTracker {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Value("${blog.user-activity.online-window-ms:300000}")
+    private long onlineWindowMs;
+
+    @Value("${blog.user-activity.batch-size:500}")
+    private int batchSize;
+
+    @Value("${blog.user-activity.preload-limit:1000}")
+    private int preloadLimit;
+
+    /**
+     * 用户ID -> 最后活动时间（epoch 毫秒）
+     */
+    private final ConcurrentHashMap<Integer, Long> lastSeen = new ConcurrentHashMap<>();
+
+    /**
+     * 最后活动时间尚未写回的用户ID
+     */
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 尚未写回的登录记录：用户ID -> 登录记录
+     */
+    private final ConcurrentHashMap<Integer, LoginRecord> pendingLogins = new ConcurrentHashMap<>();
+
+    /**
+     * 一次登录（时间和IP）
+     */
+    public record LoginRecord(LocalDateTime time, String ip) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            for (User user : userMapper.getOnlineUsers(preloadLimit)) {
+                if (user.getId() != null && user.getLastActiveTime() != null) {
+                    lastSeen.merge(user.getId(), toMillis(user.getLastActiveTime()), Math::max);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("加载在线用户失败，在线状态从空开始: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录一次活动
+     */
+    public void touch(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        lastSeen.merge(userId, System.currentTimeMillis(), Math::max);
+        dirty.add(userId);
+    }
+
+    /**
+     * 记录一次登录（同时记为一次活动）
+     */
+    public void recordLogin(Integer userId, String ip) {
+        if (userId == null) {
+            return;
+        }
+        pendingLogins.put(userId, new LoginRecord(LocalDateTime.now(), ip));
+        touch(userId);
+    }
+
+    /**
+     * 尚未写回数据库的登录记录，没有返回null
+     */
+    public LoginRecord pendingLogin(Integer userId) {
+        return userId == null ? null : pendingLogins.get(userId);
+    }
+
+    /**
+     * 最后活动时间（毫秒），内存中没有记录返回null
+     */
+    public Long lastSeen(Integer userId) {
+        return userId == null ? null : lastSeen.get(userId);
+    }
+
+    /**
+     * 是否在线：优先用内存中的最后活动时间，没有记录时用数据库中的值
+     */
+    public boolean isOnline(Integer userId, LocalDateTime storedLastActive) {
+        Long millis = lastSeen(userId);
+        if (millis == null && storedLastActive != null) {
+            millis = toMillis(storedLastActive);
+        }
+        return millis != null && System.currentTimeMillis() - millis < onlineWindowMs;
+    }
+
+    /**
+     * 在线用户ID，按最后活动时间倒序
+     */
+    public List<Integer> onlineUserIds(int limit) {
+        long since = System.currentTimeMillis() - onlineWindowMs;
+        List<Map.Entry<Integer, Long>> online = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : lastSeen.entrySet()) {
+            if (entry.getValue() > since) {
+                online.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        online.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+
+        List<Integer> ids = new ArrayList<>(Math.min(limit, online.size()));
+        for (int i = 0; i < online.size() && i < limit; i++) {
+            ids.add(online.get(i).getKey());
+        }
+        return ids;
+    }
+
+    /**
+     * 定时批量写回，并清理已离线的记录
+     */
+    @Scheduled(fixedDelayString = "${blog.user-activity.flush-interval-ms:5000}")
+    public void flush() {
+        flushLogins();
+
+        if (!dirty.isEmpty()) {
+            Map<Integer, LocalDateTime> batch = new HashMap<>();
+            for (Integer userId : dirty) {
+                // 先移出再写回，写回期间的新活动会重新标记
+                if (!dirty.remove(userId)) {
+                    continue;
+                }
+                Long millis = lastSeen.get(userId);
+                if (millis != null) {
+                    batch.put(userId, toLocalDateTime(millis));
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    batch = new HashMap<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        }
+
+        long since = System.currentTimeMillis() - onlineWindowMs;
+        lastSeen.entrySet().removeIf(entry -> entry.getValue() <= since && !dirty.contains(entry.getKey()));
+    }
+
+    private void flushLogins() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, LoginRecord> batch = new HashMap<>();
+        for (Map.Entry<Integer, LoginRecord> entry : pendingLogins.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= batchSize) {
+                writeLogins(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeLogins(batch);
+        }
+    }
+
+    /**
+     * 写回一批登录记录，成功后移除（期间又登录的保留新记录），失败则保留，下次重试
+     * 个人资料缓存在写回成功后失效：写回之前读到的旧登录信息由 pendingLogin 覆盖，写回之后重新加载
+     */
+    private void writeLogins(Map<Integer, LoginRecord> batch) {
+        Map<Integer, LocalDateTime> times = new HashMap<>();
+        Map<Integer, String> ips = new HashMap<>();
+        for (Map.Entry<Integer, LoginRecord> entry : batch.entrySet()) {
+            times.put(entry.getKey(), entry.getValue().time());
+            ips.put(entry.getKey(), entry.getValue().ip());
+        }
+
+        try {
+            userMapper.batchUpdateLastLogin(times, ips);
+            for (Map.Entry<Integer, LoginRecord> entry : batch.entrySet()) {
+                // 先失效再移除，两步之间的读取仍有 pendingLogin 覆盖
+                userProfileCache.invalidate(entry.getKey());
+                pendingLogins.remove(entry.getKey(), entry.getValue());
+            }
+        } catch (Exception e) {
+            log.error("批量写回用户登录信息失败, 用户数: {}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 写回一批最后活动时间，失败则重新标记，下次重试
+     */
+    private void writeBatch(Map<Integer, LocalDateTime> batch) {
+        try {
+            userMapper.batchUpdateLastActive(batch);
+        } catch (Exception e) {
+            log.error("批量写回用户最后活动时间失败, 用户数: {}", batch.size(), e);
+            dirty.addAll(batch.keySet());
+        }
+    }
+
+    /**
+     * 应用关闭前把剩余的登录记录和活动时间写回
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,97 @@
+package com.blog.cache;
+
+import com.blog.dao.UserMapper;
+import com.blog.entity.User;
+import com.blog.entity.vo.UserProfileVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户个人主页资料本地缓存
+ * 1. 缓存 user 表中展示用的资料（不含统计和在线状态，这两项每次由 UserProfileStats / UserActivityTracker 补充）
+ * 2. 用户修改资料、头像、简介时失效，事务提交后再失效一次；加载期间该用户被修改时不缓存加载结果
+ * 3. 读取时返回副本，调用方修改返回值不会影响缓存
+ */
+@Component
+public class UserProfileCache {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.profile-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${blog.profile-cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    private VersionedLoader<Integer, Profile> loader;
+
+    /**
+     * 缓存条目：资料 + 数据库中的最后活动时间（判断在线状态时内存中没有记录再用它）
+     */
+    public record Profile(UserProfileVO profile, LocalDateTime lastActiveTime) {
+    }
+
+    @PostConstruct
+    public void init() {
+        WeightedLruCache<Integer, Profile> cache = new WeightedLruCache<>(maxEntries, expireAfterWriteMs, profile -> 1);
+        cache.bindMetrics(meterRegistry, "userProfile");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 获取用户资料，缓存未命中时查询数据库，用户不存在返回null
+     */
+    public Profile get(Integer userId) {
+        Profile profile = loader.get(userId, this::load);
+        return profile == null ? null : copyOf(profile);
+    }
+
+    private Profile load(Integer userId) {
+        User user = userMapper.findById(userId);
+        if (user == null) {
+            return null;
+        }
+
+        UserProfileVO profile = new UserProfileVO();
+        profile.setId(user.getId());
+        profile.setUsername(user.getUsername());
+        profile.setEmail(user.getEmail());
+        profile.setAvatar(user.getAvatar());
+        profile.setBio(user.getBio());
+        profile.setCreateTime(user.getCreateTime());
+        profile.setLastLoginTime(user.getLastLoginTime());
+        profile.setLastLoginIp(user.getLastLoginIp());
+
+        return new Profile(profile, user.getLastActiveTime());
+    }
+
+    /**
+     * 使用户资料缓存失效
+     */
+    public void invalidate(Integer userId) {
+        loader.invalidate(userId);
+    }
+
+    private static Profile copyOf(Profile source) {
+        UserProfileVO from = source.profile();
+        UserProfileVO to = new UserProfileVO();
+        to.setId(from.getId());
+        to.setUsername(from.getUsername());
+        to.setEmail(from.getEmail());
+        to.setAvatar(from.getAvatar());
+        to.setBio(from.getBio());
+        to.setCreateTime(from.getCreateTime());
+        to.setLastLoginTime(from.getLastLoginTime());
+        to.setLastLoginIp(from.getLastLoginIp());
+        return new Profile(to, source.lastActiveTime());
+    }
+}
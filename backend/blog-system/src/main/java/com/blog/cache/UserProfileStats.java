@@ -0,0 +1,173 @@
+package com.blog.cache;
+
+import com.blog.dao.ArticleMapper;
+import com.blog.dao.UserMapper;
+import com.blog.entity.Article;
+import com.blog.entity.vo.FollowCountVO;
+import com.blog.entity.vo.UserStatsVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 用户个人主页统计（文章数、获赞数、阅读数、关注数、粉丝数）
+ * 1. 首次查询时用一条SQL按 article 实时统计文章数、获赞数、阅读数，之后保存在内存中；关注数和粉丝数取自 FollowCountCache
+ * 2. 发布/删除文章、阅读量写回时在事务提交后增量更新，查询直接读内存
+ * 3. 定时对账：按文章表重新计算 user 表的 article_count/like_count/view_count，并清空内存计数，下次查询重新统计
+ * 4. 加载期间该用户有写入时放弃缓存，避免计数漏掉这次写入
+ */
+@Slf4j
+@Component
+public class UserProfileStats {
+
+    private static final int ARTICLES = 0;
+    private static final int LIKES = 1;
+    private static final int VIEWS = 2;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private FollowCountCache followCountCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.profile-stats.max-users:10000}")
+    private long maxUsers;
+
+    private WeightedLruCache<Integer, AtomicLongArray> cache;
+
+    private VersionedLoader<Integer, AtomicLongArray> loader;
+
+    @PostConstruct
+    public void init() {
+        cache = new WeightedLruCache<>(maxUsers, 0, counters -> 1);
+        cache.bindMetrics(meterRegistry, "userProfileStats");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 获取用户统计
+     */
+    public UserStatsVO get(Integer userId) {
+        AtomicLongArray counters = loader.get(userId, this::load);
+        if (counters == null) {
+            counters = new AtomicLongArray(3);
+        }
+
+        UserStatsVO stats = new UserStatsVO();
+        stats.setArticleCount(toInt(counters.get(ARTICLES)));
+        stats.setLikeCount(toInt(counters.get(LIKES)));
+        stats.setViewCount(toInt(counters.get(VIEWS)));
+
+        FollowCountVO followCounts = followCountCache.get(userId);
+        stats.setFollowingCount(followCounts.getFollowingCount());
+        stats.setFollowerCount(followCounts.getFollowerCount());
+        return stats;
+    }
+
+    private AtomicLongArray load(Integer userId) {
+        UserStatsVO stats = userMapper.selectProfileStats(userId);
+        AtomicLongArray counters = new AtomicLongArray(3);
+        if (stats != null) {
+            counters.set(ARTICLES, valueOf(stats.getArticleCount()));
+            counters.set(LIKES, valueOf(stats.getLikeCount()));
+            counters.set(VIEWS, valueOf(stats.getViewCount()));
+        }
+        return counters;
+    }
+
+    /**
+     * 发布文章（文章原有的点赞数、阅读数一并计入作者）
+     */
+    public void onArticlePublished(Integer userId, Integer likeCount, Integer viewCount) {
+        afterCommit(userId, counters -> {
+            counters.incrementAndGet(ARTICLES);
+            counters.addAndGet(LIKES, valueOf(likeCount));
+            counters.addAndGet(VIEWS, valueOf(viewCount));
+        });
+    }
+
+    /**
+     * 删除已发布的文章
+     */
+    public void onArticleRemoved(Integer userId, Integer likeCount, Integer viewCount) {
+        afterCommit(userId, counters -> {
+            counters.decrementAndGet(ARTICLES);
+            counters.addAndGet(LIKES, -valueOf(likeCount));
+            counters.addAndGet(VIEWS, -valueOf(viewCount));
+        });
+    }
+
+    /**
+     * 文章阅读量写回数据库后，把增量累加到作者（key: 文章ID, value: 增量）
+     */
+    public void onViewsFlushed(Map<Integer, Long> deltas) {
+        if (deltas.isEmpty() || cache.size() == 0) {
+            return;
+        }
+
+        Map<Integer, Long> byAuthor = new HashMap<>();
+        try {
+            for (Article article : articleMapper.findAuthorsByIds(deltas.keySet())) {
+                Long delta = deltas.get(article.getId());
+                if (delta != null && article.getUserId() != null
+                        && article.getStatus() != null && article.getStatus() == 1) {
+                    byAuthor.merge(article.getUserId(), delta, Long::sum);
+                }
+            }
+        } catch (Exception e) {
+            // 查询失败时本轮增量不计入作者，等定时对账修正
+            log.warn("查询文章作者失败，跳过阅读量统计: {}", e.getMessage());
+            return;
+        }
+        for (Map.Entry<Integer, Long> entry : byAuthor.entrySet()) {
+            afterCommit(entry.getKey(), counters -> counters.addAndGet(VIEWS, entry.getValue()));
+        }
+    }
+
+    private void afterCommit(Integer userId, Consumer<AtomicLongArray> change) {
+        loader.updateAfterCommit(userId, counters -> {
+            change.accept(counters);
+            return counters;
+        });
+    }
+
+    /**
+     * 定时对账：维护 user 表上的冗余统计列，并让内存计数下次查询时重新统计
+     */
+    @Scheduled(fixedDelayString = "${blog.profile-stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            int updated = userMapper.refreshContentStats();
+            if (updated > 0) {
+                log.info("用户统计对账完成，修正用户数: {}", updated);
+            }
+        } catch (Exception e) {
+            log.error("用户统计对账失败", e);
+        }
+
+        loader.invalidateAll();
+    }
+
+    private static long valueOf(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static int toInt(long value) {
+        return (int) Math.max(0, Math.min(value, Integer.MAX_VALUE));
+    }
+}
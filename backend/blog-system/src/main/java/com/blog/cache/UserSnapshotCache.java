@@ -0,0 +1,62 @@
+package com.blog.cache;
+
+import com.blog.dao.UserMapper;
+import com.blog.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户展示信息本地缓存（用户名、头像）
+ * 评论、列表等只需要展示作者信息的地方从这里取，不再为每次写入回查 user 表
+ * 用户修改资料时失效，事务提交后再失效一次；加载期间该用户被修改时不缓存加载结果
+ */
+@Component
+public class UserSnapshotCache {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.user-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${blog.user-cache.expire-after-write-ms:600000}")
+    private long expireAfterWriteMs;
+
+    private VersionedLoader<Integer, UserSnapshot> loader;
+
+    /**
+     * 用户展示信息（不可变）
+     */
+    public record UserSnapshot(Integer id, String username, String avatar) {
+    }
+
+    @PostConstruct
+    public void init() {
+        WeightedLruCache<Integer, UserSnapshot> cache = new WeightedLruCache<>(maxEntries, expireAfterWriteMs, snapshot -> 1);
+        cache.bindMetrics(meterRegistry, "userSnapshot");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 获取用户展示信息，缓存未命中时查询数据库，用户不存在返回null
+     */
+    public UserSnapshot get(Integer userId) {
+        return loader.get(userId, id -> {
+            User user = userMapper.findBriefById(id);
+            return user == null ? null : new UserSnapshot(user.getId(), user.getUsername(), user.getAvatar());
+        });
+    }
+
+    /**
+     * 使用户缓存失效
+     */
+    public void invalidate(Integer userId) {
+        loader.invalidate(userId);
+    }
+}
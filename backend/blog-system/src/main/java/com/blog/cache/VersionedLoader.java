@@ -0,0 +1,100 @@
+package com.blog.cache;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 带写入版本号的缓存加载
+ * 按 key 分段记录版本号，每次修改缓存都递增对应分段的版本号；
+ * 缓存未命中时先记下版本号再查库，查完版本号变了说明加载期间有写入（读到的可能是旧数据），只返回不放入缓存
+ * 所有修改都在本对象的锁内进行，和加载结果的放入互斥
+ */
+public class VersionedLoader<K, V> {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final WeightedLruCache<K, V> cache;
+
+    /**
+     * 按 key 分段的写入版本号，只在 synchronized(this) 内读写
+     */
+    private final long[] versions = new long[VERSION_STRIPES];
+
+    public VersionedLoader(WeightedLruCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载；loader 返回null时不缓存
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (key == null) {
+            return null;
+        }
+
+        V cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version;
+        synchronized (this) {
+            version = versions[stripe(key)];
+        }
+
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (versions[stripe(key)] == version) {
+                cache.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 立即修改缓存中的值（change 返回null表示移除，不在缓存中时不调用），并递增版本号
+     */
+    public synchronized void update(K key, UnaryOperator<V> change) {
+        if (key == null) {
+            return;
+        }
+        versions[stripe(key)]++;
+        cache.computeIfPresent(key, change);
+    }
+
+    /**
+     * 事务提交后修改缓存中的值（没有事务时立即修改）
+     */
+    public void updateAfterCommit(K key, UnaryOperator<V> change) {
+        if (key == null) {
+            return;
+        }
+        AfterCommit.run(() -> update(key, change));
+    }
+
+    /**
+     * 立即失效，事务提交后再失效一次（提交前并发加载读到的旧数据会在提交后被清掉）
+     */
+    public void invalidate(K key) {
+        update(key, value -> null);
+        updateAfterCommit(key, value -> null);
+    }
+
+    /**
+     * 清空缓存，正在进行的加载结果都不再放入
+     */
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions[i]++;
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+}
@@ -0,0 +1,183 @@
+package com.blog.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按权重限制容量的LRU缓存（线程安全）
+ * 1. 总权重超过上限时，从最久未访问的条目开始淘汰
+ * 2. 可选的写入后过期时间，兜底不经过业务代码的数据变更
+ * 3. 记录命中/未命中/淘汰次数，可注册到Micrometer供actuator查看
+ */
+public class WeightedLruCache<K, V> {
+
+    private static class Node<V> {
+        final V value;
+        final long weight;
+        final long writeTime;
+
+        Node(V value, long weight, long writeTime) {
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    private final LinkedHashMap<K, Node<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final long expireAfterWriteMillis;
+    private final ToLongFunction<V> weigher;
+
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxWeight              总权重上限
+     * @param expireAfterWriteMillis 写入后过期时间，小于等于0表示不过期
+     * @param weigher                计算单个值的权重
+     */
+    public WeightedLruCache(long maxWeight, long expireAfterWriteMillis, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.weigher = weigher;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期返回null
+     */
+    public synchronized V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        if (isExpired(node)) {
+            removeNode(key);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return node.value;
+    }
+
+    /**
+     * 写入缓存，单个值超过总上限时不缓存
+     */
+    public synchronized void put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        removeNode(key);
+        if (weight > maxWeight) {
+            return;
+        }
+        map.put(key, new Node<>(value, weight, System.currentTimeMillis()));
+        totalWeight += weight;
+        evictIfNecessary();
+    }
+
+    /**
+     * 原地替换已存在的值（不刷新写入时间），不存在时什么也不做
+     */
+    public synchronized void computeIfPresent(K key, UnaryOperator<V> remapping) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return;
+        }
+        V newValue = remapping.apply(node.value);
+        if (newValue == null) {
+            removeNode(key);
+            return;
+        }
+        long weight = Math.max(1, weigher.applyAsLong(newValue));
+        map.put(key, new Node<>(newValue, weight, node.writeTime));
+        totalWeight += weight - node.weight;
+        evictIfNecessary();
+    }
+
+    public synchronized void invalidate(K key) {
+        removeNode(key);
+    }
+
+    public synchronized void invalidateAll() {
+        map.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 注册缓存指标：/actuator/metrics/blog.cache.gets?tag=cache:xxx
+     */
+    public void bindMetrics(MeterRegistry registry, String cacheName) {
+        FunctionCounter.builder("blog.cache.gets", this, WeightedLruCache::hitCount)
+                .tag("cache", cacheName).tag("result", "hit")
+                .description("缓存命中次数")
+                .register(registry);
+        FunctionCounter.builder("blog.cache.gets", this, WeightedLruCache::missCount)
+                .tag("cache", cacheName).tag("result", "miss")
+                .description("缓存未命中次数")
+                .register(registry);
+        FunctionCounter.builder("blog.cache.evictions", this, WeightedLruCache::evictionCount)
+                .tag("cache", cacheName)
+                .description("缓存淘汰次数")
+                .register(registry);
+        Gauge.builder("blog.cache.size", this, WeightedLruCache::size)
+                .tag("cache", cacheName)
+                .description("缓存条目数")
+                .register(registry);
+        Gauge.builder("blog.cache.weight", this, WeightedLruCache::weight)
+                .tag("cache", cacheName)
+                .description("缓存总权重")
+                .register(registry);
+    }
+
+    private boolean isExpired(Node<V> node) {
+        return expireAfterWriteMillis > 0
+                && System.currentTimeMillis() - node.writeTime > expireAfterWriteMillis;
+    }
+
+    private void removeNode(K key) {
+        Node<V> removed = map.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+        }
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<K, Node<V>>> it = map.entrySet().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            Map.Entry<K, Node<V>> eldest = it.next();
+            totalWeight -= eldest.getValue().weight;
+            it.remove();
+            evictionCount.increment();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.blog.comment;
+
+import com.blog.cache.CommentCache;
+import com.blog.dao.CommentMapper;
+import com.blog.dao.UserLikeMapper;
+import com.blog.entity.Comment;
+import com.blog.entity.UserLike;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 评论点赞
+ * 1. 每条被点赞/查询过的评论在内存中保存点赞用户集合（LikerBitmap），判重和修改在该评论自己的锁内完成，没有先查后写的竞态
+ * 2. 点赞数增量按评论累加在 LongAdder 中，读取时返回 数据库值 + 尚未写回的增量（含正在写回的部分）
+ * 3. 定时把点赞/取消点赞记录批量写入 user_like，把点赞数增量合并成 UPDATE ... CASE id 批量写回 comment.like_count，
+ *    同一批的两部分在一个事务内写入，失败时一起放回下次重试，点赞记录和点赞数不会只写入一半
+ * 4. 内存中的评论数超过上限时，淘汰已全部写回的评论，之后再访问时重新从数据库加载
+ */
+@Slf4j
+@Component
+public class CommentLikeStore {
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private UserLikeMapper userLikeMapper;
+
+    @Autowired
+    private CommentCache commentCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${blog.comment-like.batch-size:500}")
+    private int batchSize;
+
+    @Value("${blog.comment-like.max-comments:10000}")
+    private int maxComments;
+
+    /**
+     * 评论ID -> 点赞状态
+     */
+    private final ConcurrentHashMap<Integer, LikeState> states = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private static final class LikeState {
+        final Integer commentId;
+        final Integer articleId;
+        final LikerBitmap likers = new LikerBitmap();
+        /**
+         * 尚未写库的操作：用户ID -> true 点赞 / false 取消点赞
+         */
+        final Map<Integer, Boolean> pendingOps = new HashMap<>();
+        final LongAdder pendingDelta = new LongAdder();
+        /**
+         * 已从 pendingDelta 取走、正在写回的增量，写回完成前仍计入读取结果
+         */
+        volatile long flushingDelta;
+        boolean evicted;
+
+        LikeState(Integer commentId, Integer articleId) {
+            this.commentId = commentId;
+            this.articleId = articleId;
+        }
+    }
+
+    /**
+     * 点赞
+     */
+    public void like(Integer commentId, Integer userId) {
+        change(commentId, userId, true);
+    }
+
+    /**
+     * 取消点赞
+     */
+    public void unlike(Integer commentId, Integer userId) {
+        change(commentId, userId, false);
+    }
+
+    private void change(Integer commentId, Integer userId, boolean like) {
+        if (commentId == null || userId == null) {
+            throw new RuntimeException("参数错误");
+        }
+
+        while (true) {
+            LikeState state = load(commentId);
+            synchronized (state) {
+                if (state.evicted) {
+                    continue;
+                }
+
+                boolean changed = like ? state.likers.add(userId) : state.likers.remove(userId);
+                if (!changed) {
+                    throw new RuntimeException(like ? "您已点赞过该评论" : "您还未点赞该评论");
+                }
+
+                // 尚未写库的相反操作直接抵消
+                if (state.pendingOps.remove(userId) == null) {
+                    state.pendingOps.put(userId, like);
+                }
+                state.pendingDelta.add(like ? 1 : -1);
+            }
+            return;
+        }
+    }
+
+    /**
+     * 在给定的评论中找出用户点赞过的评论：已加载的评论查内存，其余的一次查询数据库
+     */
+    public Set<Integer> likedComments(Integer userId, Collection<Integer> commentIds) {
+        Set<Integer> liked = new HashSet<>();
+        if (userId == null || commentIds == null || commentIds.isEmpty()) {
+            return liked;
+        }
+
+        List<Integer> unloaded = new ArrayList<>();
+        for (Integer commentId : commentIds) {
+            LikeState state = commentId == null ? null : states.get(commentId);
+            if (state == null) {
+                if (commentId != null) {
+                    unloaded.add(commentId);
+                }
+                continue;
+            }
+            synchronized (state) {
+                if (state.evicted) {
+                    unloaded.add(commentId);
+                } else if (state.likers.contains(userId)) {
+                    liked.add(commentId);
+                }
+            }
+        }
+
+        if (!unloaded.isEmpty()) {
+            liked.addAll(userLikeMapper.findLikedCommentIds(userId, unloaded));
+        }
+        return liked;
+    }
+
+    /**
+     * 尚未写回数据库的点赞数增量
+     */
+    public long getPending(Integer commentId) {
+        LikeState state = commentId == null ? null : states.get(commentId);
+        return state == null ? 0 : state.pendingDelta.sum() + state.flushingDelta;
+    }
+
+    /**
+     * 把尚未写回的点赞数增量加到评论（及其子评论）的点赞数上
+     */
+    public void applyPending(Collection<Comment> comments) {
+        if (comments == null || states.isEmpty()) {
+            return;
+        }
+        for (Comment comment : comments) {
+            long pending = getPending(comment.getId());
+            if (pending != 0) {
+                long likeCount = (comment.getLikeCount() == null ? 0 : comment.getLikeCount()) + pending;
+                comment.setLikeCount((int) Math.max(0, Math.min(likeCount, Integer.MAX_VALUE)));
+            }
+            if (comment.hasChildren()) {
+                applyPending(comment.getChildComments());
+            }
+        }
+    }
+
+    /**
+     * 加载评论的点赞用户集合（已加载则直接返回）
+     */
+    private LikeState load(Integer commentId) {
+        LikeState state = states.get(commentId);
+        if (state != null) {
+            return state;
+        }
+
+        Comment comment = commentMapper.findBriefById(commentId);
+        if (comment == null || comment.getStatus() == null || comment.getStatus() != 1) {
+            throw new RuntimeException("评论不存在");
+        }
+
+        LikeState loaded = new LikeState(commentId, comment.getArticleId());
+        for (Integer userId : userLikeMapper.findUserIdsByCommentId(commentId)) {
+            if (userId != null) {
+                loaded.likers.add(userId);
+            }
+        }
+
+        LikeState existing = states.putIfAbsent(commentId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 定时批量写回
+     */
+    @Scheduled(fixedDelayString = "${blog.comment-like.flush-interval-ms:5000}")
+    public void flush() {
+        if (states.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            List<UserLike> likes = new ArrayList<>();
+            List<UserLike> unlikes = new ArrayList<>();
+            Map<Integer, Long> deltas = new HashMap<>();
+            Map<Integer, LikeState> flushed = new HashMap<>();
+
+            for (LikeState state : states.values()) {
+                synchronized (state) {
+                    for (Map.Entry<Integer, Boolean> op : state.pendingOps.entrySet()) {
+                        UserLike userLike = new UserLike(op.getKey(), state.commentId);
+                        (op.getValue() ? likes : unlikes).add(userLike);
+                    }
+                    state.pendingOps.clear();
+
+                    // 与点赞记录在同一把锁内取走增量，写回的点赞数与点赞记录对应同一批操作
+                    long delta = state.pendingDelta.sumThenReset();
+                    if (delta != 0) {
+                        state.flushingDelta = delta;
+                        deltas.put(state.commentId, delta);
+                        flushed.put(state.commentId, state);
+                    }
+                }
+
+                if (likes.size() + unlikes.size() >= batchSize || deltas.size() >= batchSize) {
+                    writeBatch(likes, unlikes, deltas, flushed);
+                    likes = new ArrayList<>();
+                    unlikes = new ArrayList<>();
+                    deltas = new HashMap<>();
+                    flushed = new HashMap<>();
+                }
+            }
+
+            if (!likes.isEmpty() || !unlikes.isEmpty() || !deltas.isEmpty()) {
+                writeBatch(likes, unlikes, deltas, flushed);
+            }
+
+            evictIfNecessary();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 在一个事务内写回一批点赞记录和点赞数增量；失败时点赞记录放回待写队列、增量加回，下次一起重试
+     */
+    private void writeBatch(List<UserLike> likes, List<UserLike> unlikes,
+                            Map<Integer, Long> deltas, Map<Integer, LikeState> flushed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!unlikes.isEmpty()) {
+                    userLikeMapper.batchDelete(unlikes);
+                }
+                if (!likes.isEmpty()) {
+                    userLikeMapper.batchInsert(likes);
+                }
+                if (!deltas.isEmpty()) {
+                    commentMapper.batchIncrementLikeCount(deltas);
+                }
+            });
+        } catch (Exception e) {
+            log.error("批量写回评论点赞失败, 记录数: {}, 评论数: {}", likes.size() + unlikes.size(), deltas.size(), e);
+            requeue(likes, true);
+            requeue(unlikes, false);
+            for (Map.Entry<Integer, Long> entry : deltas.entrySet()) {
+                LikeState state = flushed.get(entry.getKey());
+                state.pendingDelta.add(entry.getValue());
+                state.flushingDelta = 0;
+            }
+            return;
+        }
+
+        for (Map.Entry<Integer, Long> entry : deltas.entrySet()) {
+            LikeState state = flushed.get(entry.getKey());
+            state.flushingDelta = 0;
+            commentCache.onLikeCountChanged(state.articleId, state.commentId, entry.getValue().intValue());
+        }
+    }
+
+    private void requeue(List<UserLike> ops, boolean like) {
+        for (UserLike op : ops) {
+            LikeState state = states.get(op.getCommentId());
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                // 期间出现了相反的新操作时两者抵消
+                if (state.pendingOps.remove(op.getUserId()) == null) {
+                    state.pendingOps.put(op.getUserId(), like);
+                }
+            }
+        }
+    }
+
+    /**
+     * 淘汰已全部写回的评论，直到数量不超过上限
+     */
+    private void evictIfNecessary() {
+        Iterator<LikeState> it = states.values().iterator();
+        while (states.size() > maxComments && it.hasNext()) {
+            LikeState state = it.next();
+            synchronized (state) {
+                if (state.pendingOps.isEmpty() && state.pendingDelta.sum() == 0 && state.flushingDelta == 0) {
+                    state.evicted = true;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前把剩余数据写回
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
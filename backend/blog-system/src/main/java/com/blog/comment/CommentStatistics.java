@@ -0,0 +1,333 @@
+package com.blog.comment;
+
+import com.blog.cache.AfterCommit;
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.CommentCache;
+import com.blog.cache.UserSnapshotCache;
+import com.blog.cache.UserSnapshotCache.UserSnapshot;
+import com.blog.cache.VersionedLoader;
+import com.blog.cache.WeightedLruCache;
+import com.blog.dao.ArticleMapper;
+import com.blog.entity.Comment;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 文章评论统计
+ * 1. 每篇文章的统计（评论数、回复层级分布、独立评论人数、按小时分布、评论最多的用户）在首次查询时由文章评论缓存计算一次，
+ *    之后在评论新增/删除的事务提交后增量更新，查询直接读内存
+ * 2. 独立评论人数用 HyperLogLog 估算（每篇文章固定1KB，删除评论不减少）
+ * 3. 统计对象按LRU淘汰，淘汰后再查询时重新计算；加载期间该文章有写入时放弃缓存，避免统计结果漏掉这次写入
+ * 4. 评论增删后把文章标记为待同步，定时用一条 UPDATE 按 comment 表重新计算这些文章的 comment_count
+ * 5. 启动完成后对账一次全部文章的 comment_count（只更新不一致的行），修正上次运行未同步完的计数
+ */
+@Slf4j
+@Component
+public class CommentStatistics {
+
+    private static final int HLL_PRECISION = 10;
+
+    @Autowired
+    private CommentCache commentCache;
+
+    @Autowired
+    private UserSnapshotCache userSnapshotCache;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticleDetailCache articleDetailCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.comment-stats.max-articles:2000}")
+    private long maxArticles;
+
+    @Value("${blog.comment-stats.top-commenters:10}")
+    private int topCommenters;
+
+    @Value("${blog.comment-stats.batch-size:500}")
+    private int batchSize;
+
+    private VersionedLoader<Integer, ArticleStats> loader;
+
+    /**
+     * 评论数待同步的文章ID
+     */
+    private final Set<Integer> dirtyArticles = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        WeightedLruCache<Integer, ArticleStats> cache = new WeightedLruCache<>(maxArticles, 0, stats -> 1);
+        cache.bindMetrics(meterRegistry, "commentStatistics");
+        loader = new VersionedLoader<>(cache);
+    }
+
+    /**
+     * 单篇文章的评论统计（方法均在对象锁内执行）
+     */
+    private static final class ArticleStats {
+        int total;
+        int topLevel;
+        final List<Integer> depthCounts = new ArrayList<>();
+        final int[] hourCounts = new int[24];
+        final HyperLogLog commenters = new HyperLogLog(HLL_PRECISION);
+        final Map<Integer, Integer> commentCounts = new HashMap<>();
+        /**
+         * 评论ID -> 层级（顶级评论为0），新增回复时由父评论推算层级
+         */
+        final Map<Integer, Integer> depths = new HashMap<>();
+
+        synchronized void add(Comment comment) {
+            if (comment.getId() == null || depths.containsKey(comment.getId())) {
+                return;
+            }
+
+            int depth = 0;
+            if (!comment.isTopLevel()) {
+                Integer parentDepth = depths.get(comment.getParentId());
+                depth = parentDepth == null ? 1 : parentDepth + 1;
+            }
+            depths.put(comment.getId(), depth);
+
+            total++;
+            if (depth == 0) {
+                topLevel++;
+            }
+            while (depthCounts.size() <= depth) {
+                depthCounts.add(0);
+            }
+            depthCounts.set(depth, depthCounts.get(depth) + 1);
+
+            int hour = hourOf(comment.getCreateTime());
+            if (hour >= 0) {
+                hourCounts[hour]++;
+            }
+            if (comment.getUserId() != null) {
+                commenters.add(comment.getUserId());
+                commentCounts.merge(comment.getUserId(), 1, Integer::sum);
+            }
+        }
+
+        synchronized void remove(Comment comment) {
+            Integer depth = comment.getId() == null ? null : depths.remove(comment.getId());
+            if (depth == null) {
+                return;
+            }
+
+            total--;
+            if (depth == 0) {
+                topLevel--;
+            }
+            depthCounts.set(depth, depthCounts.get(depth) - 1);
+            while (!depthCounts.isEmpty() && depthCounts.get(depthCounts.size() - 1) == 0) {
+                depthCounts.remove(depthCounts.size() - 1);
+            }
+
+            int hour = hourOf(comment.getCreateTime());
+            if (hour >= 0) {
+                hourCounts[hour]--;
+            }
+            if (comment.getUserId() != null) {
+                commentCounts.computeIfPresent(comment.getUserId(), (userId, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+        synchronized Map<String, Object> snapshot(int topN) {
+            List<Map.Entry<Integer, Integer>> top = new ArrayList<>(commentCounts.entrySet());
+            top.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+            Map<Integer, Integer> topCounts = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Integer> entry : top.subList(0, Math.min(topN, top.size()))) {
+                topCounts.put(entry.getKey(), entry.getValue());
+            }
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("total", total);
+            stats.put("topLevel", topLevel);
+            stats.put("replies", total - topLevel);
+            stats.put("maxDepth", Math.max(0, depthCounts.size() - 1));
+            stats.put("depthDistribution", new ArrayList<>(depthCounts));
+            stats.put("uniqueCommenters", commenters.estimate());
+            stats.put("hourlyDistribution", hourCounts.clone());
+            stats.put("topCommenters", topCounts);
+            return stats;
+        }
+
+        /**
+         * 从 yyyy-MM-dd HH:mm:ss 中取小时，格式不对返回-1
+         */
+        private static int hourOf(String time) {
+            if (time == null || time.length() < 13) {
+                return -1;
+            }
+            try {
+                int hour = Integer.parseInt(time.substring(11, 13));
+                return hour >= 0 && hour < 24 ? hour : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 获取文章的评论统计
+     */
+    public Map<String, Object> getStatistics(Integer articleId) {
+        ArticleStats stats = loader.get(articleId, this::build);
+        if (stats == null) {
+            stats = new ArticleStats();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("articleId", articleId);
+        Map<String, Object> snapshot = stats.snapshot(topCommenters);
+
+        // 评论最多的用户补充用户名和头像
+        @SuppressWarnings("unchecked")
+        Map<Integer, Integer> topCounts = (Map<Integer, Integer>) snapshot.get("topCommenters");
+        List<Map<String, Object>> top = new ArrayList<>(topCounts.size());
+        for (Map.Entry<Integer, Integer> entry : topCounts.entrySet()) {
+            Map<String, Object> commenter = new LinkedHashMap<>();
+            UserSnapshot user = userSnapshotCache.get(entry.getKey());
+            commenter.put("userId", entry.getKey());
+            commenter.put("username", user == null ? null : user.username());
+            commenter.put("avatar", user == null ? null : user.avatar());
+            commenter.put("count", entry.getValue());
+            top.add(commenter);
+        }
+        snapshot.put("topCommenters", top);
+
+        result.putAll(snapshot);
+        return result;
+    }
+
+    private ArticleStats build(Integer articleId) {
+        ArticleStats stats = new ArticleStats();
+        // 评论按时间正序，父评论一般在回复之前；个别顺序颠倒的回复按父评论缺失处理
+        for (Comment comment : commentCache.getComments(articleId)) {
+            stats.add(comment);
+        }
+        return stats;
+    }
+
+    /**
+     * 新增评论（comment 需包含ID、父评论、评论人和创建时间）
+     */
+    public void onCreated(Comment comment) {
+        Comment snapshot = copyOf(comment);
+        afterCommit(snapshot.getArticleId(), stats -> stats.add(snapshot));
+    }
+
+    /**
+     * 删除评论
+     */
+    public void onDeleted(Comment comment) {
+        Comment snapshot = copyOf(comment);
+        afterCommit(snapshot.getArticleId(), stats -> stats.remove(snapshot));
+    }
+
+    private void afterCommit(Integer articleId, Consumer<ArticleStats> change) {
+        if (articleId == null) {
+            return;
+        }
+
+        AfterCommit.run(() -> {
+            loader.update(articleId, stats -> {
+                change.accept(stats);
+                return stats;
+            });
+            dirtyArticles.add(articleId);
+        });
+    }
+
+    /**
+     * 定时同步文章评论数
+     */
+    @Scheduled(fixedDelayString = "${blog.comment-stats.sync-interval-ms:5000}")
+    public void syncCommentCounts() {
+        if (dirtyArticles.isEmpty()) {
+            return;
+        }
+
+        List<Integer> batch = new ArrayList<>();
+        for (Integer articleId : dirtyArticles) {
+            // 先移出再同步，同步期间的新写入会重新标记
+            if (dirtyArticles.remove(articleId)) {
+                batch.add(articleId);
+            }
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Integer> articleIds) {
+        try {
+            articleMapper.refreshCommentCount(articleIds);
+            for (Integer articleId : articleIds) {
+                articleDetailCache.invalidate(articleId);
+            }
+        } catch (Exception e) {
+            log.error("同步文章评论数失败, 文章数: {}", articleIds.size(), e);
+            dirtyArticles.addAll(articleIds);
+        }
+    }
+
+    /**
+     * 启动完成后按 comment 表对账所有文章的评论数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileCommentCounts() {
+        try {
+            int updated = articleMapper.refreshAllCommentCounts();
+            if (updated > 0) {
+                articleDetailCache.invalidateAll();
+                log.info("文章评论数对账完成，修正文章数: {}", updated);
+            }
+        } catch (Exception e) {
+            log.error("文章评论数对账失败", e);
+        }
+    }
+
+    /**
+     * 应用关闭前同步剩余的文章评论数
+     */
+    @PreDestroy
+    public void shutdown() {
+        syncCommentCounts();
+    }
+
+    private static Comment copyOf(Comment source) {
+        Comment target = new Comment();
+        target.setId(source.getId());
+        target.setArticleId(source.getArticleId());
+        target.setUserId(source.getUserId());
+        target.setParentId(source.getParentId());
+        target.setCreateTime(source.getCreateTime());
+        return target;
+    }
+}
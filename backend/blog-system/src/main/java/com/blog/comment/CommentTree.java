@@ -0,0 +1,98 @@
+package com.blog.comment;
+
+import com.blog.entity.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 评论树组装
+ * 输入一篇文章的全部评论（平铺，按时间正序），在内存中一次组装成任意深度的树：
+ * 1. 第一遍把 评论ID -> 下标 放入开放寻址的 int 数组哈希表（不装箱、不创建 HashMap 节点）
+ * 2. 第二遍按 parentId 查表挂到父评论下，整体 O(n)
+ * 父评论不在列表中（已删除）的回复不会出现在树中，与逐层查询时的行为一致
+ */
+public final class CommentTree {
+
+    private CommentTree() {
+    }
+
+    public static List<Comment> build(List<Comment> comments) {
+        List<Comment> roots = new ArrayList<>();
+        if (comments == null || comments.isEmpty()) {
+            return roots;
+        }
+
+        IdIndex index = new IdIndex(comments.size());
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            comment.setChildComments(null);
+            if (comment.getId() != null) {
+                index.put(comment.getId(), i);
+            }
+        }
+
+        for (Comment comment : comments) {
+            if (comment.isTopLevel()) {
+                roots.add(comment);
+                continue;
+            }
+
+            int parentIndex = index.get(comment.getParentId());
+            if (parentIndex >= 0) {
+                Comment parent = comments.get(parentIndex);
+                if (parent != comment) {
+                    parent.addChildComment(comment);
+                }
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 评论ID -> 列表下标（线性探测，ID为正整数，0表示空槽）
+     */
+    private static final class IdIndex {
+        private final int[] keys;
+        private final int[] values;
+        private final int mask;
+
+        IdIndex(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+            keys = new int[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        void put(int key, int value) {
+            if (key <= 0) {
+                return;
+            }
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        int get(Integer key) {
+            if (key == null || key <= 0) {
+                return -1;
+            }
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.blog.comment;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 点赞用户ID集合（非线程安全，由调用方加锁）
+ * 参照 Roaring Bitmap 的两种容器：
+ * 1. 点赞人数少时用有序 int 数组，二分查找，内存与人数成正比
+ * 2. 人数超过阈值后转为位图（BitSet），按用户ID直接定位，O(1) 判断和修改
+ */
+public class LikerBitmap {
+
+    /**
+     * 数组容器的上限，超过后转为位图（与 Roaring 的 4096 一致）
+     */
+    private static final int ARRAY_LIMIT = 4096;
+
+    private int[] array = new int[4];
+    private int size;
+    private BitSet bitmap;
+
+    public boolean contains(int userId) {
+        if (userId < 0) {
+            return false;
+        }
+        if (bitmap != null) {
+            return bitmap.get(userId);
+        }
+        return Arrays.binarySearch(array, 0, size, userId) >= 0;
+    }
+
+    /**
+     * 加入集合，已存在返回false
+     */
+    public boolean add(int userId) {
+        if (userId < 0) {
+            return false;
+        }
+        if (bitmap != null) {
+            if (bitmap.get(userId)) {
+                return false;
+            }
+            bitmap.set(userId);
+            size++;
+            return true;
+        }
+
+        int i = Arrays.binarySearch(array, 0, size, userId);
+        if (i >= 0) {
+            return false;
+        }
+        if (size == ARRAY_LIMIT) {
+            toBitmap();
+            return add(userId);
+        }
+
+        int insertAt = -i - 1;
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.min(ARRAY_LIMIT, size * 2));
+        }
+        System.arraycopy(array, insertAt, array, insertAt + 1, size - insertAt);
+        array[insertAt] = userId;
+        size++;
+        return true;
+    }
+
+    /**
+     * 移出集合，不存在返回false
+     */
+    public boolean remove(int userId) {
+        if (userId < 0) {
+            return false;
+        }
+        if (bitmap != null) {
+            if (!bitmap.get(userId)) {
+                return false;
+            }
+            bitmap.clear(userId);
+            size--;
+            return true;
+        }
+
+        int i = Arrays.binarySearch(array, 0, size, userId);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(array, i + 1, array, i, size - i - 1);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void toBitmap() {
+        bitmap = new BitSet(array[size - 1] + 1);
+        for (int i = 0; i < size; i++) {
+            bitmap.set(array[i]);
+        }
+        array = null;
+    }
+}
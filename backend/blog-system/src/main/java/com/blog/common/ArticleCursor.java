@@ -0,0 +1,134 @@
+package com.blog.common;
+
+import com.blog.entity.vo.ArticleSummaryVO;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文章列表分页游标（keyset分页）
+ * 记录上一页最后一篇文章的排序键，下一页从该位置之后继续查询，避免 LIMIT offset 扫描丢弃前面的行。
+ * 对外是一个不透明的字符串（Base64），内部格式：排序方式|是否置顶|创建时间|计数|ID
+ */
+@Data
+public class ArticleCursor {
+
+    /**
+     * 置顶优先，再按创建时间倒序（首页列表）
+     */
+    public static final String SORT_TOP = "top";
+
+    /**
+     * 按创建时间倒序
+     */
+    public static final String SORT_LATEST = "latest";
+
+    /**
+     * 按浏览量倒序
+     */
+    public static final String SORT_HOT = "hot";
+
+    /**
+     * 按点赞数倒序
+     */
+    public static final String SORT_LIKES = "likes";
+
+    private static final String SEPARATOR = "|";
+
+    private String sort;
+    private Integer isTop;
+    private LocalDateTime createTime;
+    /**
+     * 浏览量或点赞数（hot/likes排序时使用）
+     */
+    private Integer count;
+    private Integer id;
+
+    /**
+     * 根据当前页最后一篇文章生成下一页的游标
+     */
+    public static ArticleCursor of(ArticleSummaryVO last, String sort) {
+        ArticleCursor cursor = new ArticleCursor();
+        cursor.setSort(sort);
+        cursor.setId(last.getId());
+        cursor.setIsTop(last.getIsTop() == null ? 0 : last.getIsTop());
+        cursor.setCreateTime(last.getCreateTime());
+        if (SORT_HOT.equals(sort)) {
+            cursor.setCount(last.getViewCount() == null ? 0 : last.getViewCount());
+        } else if (SORT_LIKES.equals(sort)) {
+            cursor.setCount(last.getLikeCount() == null ? 0 : last.getLikeCount());
+        }
+        return cursor;
+    }
+
+    /**
+     * 组装游标分页结果
+     * @param rows 按 size+1 查询出的结果，多出的一条只用于判断是否还有下一页
+     */
+    public static Map<String, Object> toPage(List<ArticleSummaryVO> rows, int size, String sort) {
+        boolean hasMore = rows.size() > size;
+        List<ArticleSummaryVO> articles = hasMore ? rows.subList(0, size) : rows;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("articles", articles);
+        result.put("size", size);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? of(articles.get(articles.size() - 1), sort).encode() : null);
+        return result;
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = sort + SEPARATOR
+                + (isTop == null ? "" : isTop) + SEPARATOR
+                + (createTime == null ? "" : createTime) + SEPARATOR
+                + (count == null ? "" : count) + SEPARATOR
+                + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串表示第一页（返回null）
+     * @param expectedSort 当前查询的排序方式，与游标不一致时视为无效游标
+     */
+    public static ArticleCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5 || !parts[0].equals(expectedSort)) {
+                throw new IllegalArgumentException(raw);
+            }
+
+            ArticleCursor cursor = new ArticleCursor();
+            cursor.setSort(parts[0]);
+            cursor.setIsTop(parts[1].isEmpty() ? null : Integer.valueOf(parts[1]));
+            cursor.setCreateTime(parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]));
+            cursor.setCount(parts[3].isEmpty() ? null : Integer.valueOf(parts[3]));
+            cursor.setId(Integer.valueOf(parts[4]));
+
+            boolean valid = switch (cursor.getSort()) {
+                case SORT_TOP -> cursor.getIsTop() != null && cursor.getCreateTime() != null;
+                case SORT_LATEST -> cursor.getCreateTime() != null;
+                case SORT_HOT, SORT_LIKES -> cursor.getCount() != null;
+                default -> false;
+            };
+            if (!valid) {
+                throw new IllegalArgumentException(raw);
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("分页游标无效");
+        }
+    }
+}
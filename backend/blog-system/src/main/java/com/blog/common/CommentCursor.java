@@ -0,0 +1,86 @@
+package com.blog.common;
+
+import com.blog.entity.Comment;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 评论分页游标（keyset分页）
+ * 评论按 创建时间、ID 正序排列，游标记录上一页最后一条评论的这两个值。
+ * 对外是一个不透明的字符串（Base64），内部格式：创建时间|ID
+ */
+@Data
+public class CommentCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private String createTime;
+    private Integer id;
+
+    /**
+     * 根据当前页最后一条评论生成下一页的游标
+     */
+    public static CommentCursor of(Comment last) {
+        CommentCursor cursor = new CommentCursor();
+        cursor.setCreateTime(last.getCreateTime());
+        cursor.setId(last.getId());
+        return cursor;
+    }
+
+    /**
+     * 组装游标分页结果
+     * @param rows 按 size+1 查询出的结果，多出的一条只用于判断是否还有下一页
+     */
+    public static Map<String, Object> toPage(List<Comment> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Comment> comments = hasMore ? rows.subList(0, size) : rows;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("comments", comments);
+        result.put("size", size);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? of(comments.get(comments.size() - 1)).encode() : null);
+        return result;
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串表示第一页（返回null）
+     */
+    public static CommentCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+
+            // 校验时间格式（数据库返回的 yyyy-MM-dd HH:mm:ss）
+            LocalDateTime.parse(parts[0].replace(' ', 'T'));
+
+            CommentCursor cursor = new CommentCursor();
+            cursor.setCreateTime(parts[0]);
+            cursor.setId(Integer.valueOf(parts[1]));
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("分页游标无效");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.blog.common;
+
+import com.blog.entity.vo.FollowVO;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 关注/粉丝列表分页游标（keyset分页）
+ * 列表按 关注时间、关注关系ID 倒序排列，游标记录上一页最后一条的这两个值。
+ * 对外是一个不透明的字符串（Base64），内部格式：关注时间|关注关系ID
+ */
+@Data
+public class FollowCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime createTime;
+    private Integer id;
+
+    /**
+     * 根据当前页最后一条记录生成下一页的游标
+     */
+    public static FollowCursor of(FollowVO last) {
+        FollowCursor cursor = new FollowCursor();
+        cursor.setCreateTime(last.getFollowTime());
+        cursor.setId(last.getId());
+        return cursor;
+    }
+
+    /**
+     * 组装游标分页结果
+     * @param rows 按 size+1 查询出的结果，多出的一条只用于判断是否还有下一页
+     */
+    public static Map<String, Object> toPage(List<FollowVO> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<FollowVO> users = hasMore ? rows.subList(0, size) : rows;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("users", users);
+        result.put("size", size);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? of(users.get(users.size() - 1)).encode() : null);
+        return result;
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串表示第一页（返回null）
+     */
+    public static FollowCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+
+            FollowCursor cursor = new FollowCursor();
+            cursor.setCreateTime(LocalDateTime.parse(parts[0]));
+            cursor.setId(Integer.valueOf(parts[1]));
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("分页游标无效");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.blog.config;
 
+import com.blog.utils.TokenSession;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -22,6 +23,7 @@ public class CorsConfig implements WebMvcConfigurer {
         registry.addMapping("/api/**")
                 .allowedOriginPatterns("http://localhost:3000")
                 .allowedMethods("*")
+                .exposedHeaders(TokenSession.TOKEN_HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
 
@@ -0,0 +1,78 @@
+package com.blog.config;
+
+import com.blog.dao.ArticleTagMapper;
+import com.blog.dao.CommentMapper;
+import com.blog.dao.TagMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 启动时的一次性数据补全
+ * data.sql 每次启动都会执行，全表补全不放在那里；这里先用一条 EXISTS 查询判断是否还有需要补全的数据，
+ * 没有时直接跳过，补全完成后之后的启动都只付出这一次判断的代价
+ */
+@Slf4j
+@Component
+public class StartupMigration {
+
+    @Autowired
+    private ArticleTagMapper articleTagMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrateArticleTags();
+        migrateCommentRoots();
+    }
+
+    /**
+     * 按文章的 tags 字段补全 article_tag 关联（tags 只作为展示用的冗余副本，按标签查询统一走 article_tag），
+     * 并补全关联上冗余的文章发布时间
+     */
+    private void migrateArticleTags() {
+        try {
+            if (articleTagMapper.hasUnlinkedArticles()) {
+                int links = transactionTemplate.execute(status -> {
+                    articleTagMapper.insertTagsOfUnlinkedArticles();
+                    int inserted = articleTagMapper.insertLinksOfUnlinkedArticles();
+                    tagMapper.refreshAllArticleCounts();
+                    return inserted;
+                });
+                log.info("已按文章tags字段补全标签关联: {}", links);
+            }
+
+            if (articleTagMapper.hasMissingArticleCreateTime()) {
+                int filled = articleTagMapper.fillArticleCreateTime();
+                log.info("已补全标签关联的文章发布时间: {}", filled);
+            }
+        } catch (Exception e) {
+            log.error("补全文章标签关联失败", e);
+        }
+    }
+
+    /**
+     * 补全新增 root_id 列之前已有回复的所属顶级评论，讨论串分页按 root_id 查询
+     */
+    private void migrateCommentRoots() {
+        try {
+            if (commentMapper.hasRepliesWithoutRoot()) {
+                int filled = commentMapper.fillRootIds();
+                log.info("已补全回复的所属顶级评论: {}", filled);
+            }
+        } catch (Exception e) {
+            log.error("补全回复的所属顶级评论失败", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.blog.config;
+
+import com.blog.cache.UserSnapshotCache;
+import com.blog.cache.UserSnapshotCache.UserSnapshot;
+import com.blog.entity.User;
+import com.blog.utils.SessionUtil;
+import com.blog.utils.SignedToken;
+import com.blog.utils.TokenSession;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 无状态会话配置
+ * blog.session.stateless=true 时登录信息改用签名令牌保存，多个实例共用同一个 token-secret 即可互相识别，
+ * 不需要粘性会话或共享 Session 存储；默认关闭，仍使用 HttpSession
+ */
+@Configuration
+public class TokenSessionConfig {
+
+    @Autowired
+    private UserSnapshotCache userSnapshotCache;
+
+    @Value("${blog.session.stateless:false}")
+    private boolean stateless;
+
+    @Value("${blog.session.token-secret:}")
+    private String tokenSecret;
+
+    @Value("${blog.session.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${blog.session.cookie-name:BLOG_SESSION}")
+    private String cookieName;
+
+    @Value("${server.servlet.session.cookie.secure:false}")
+    private boolean secureCookie;
+
+    @PostConstruct
+    public void init() {
+        if (!stateless) {
+            return;
+        }
+
+        byte[] secret = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < 32) {
+            throw new IllegalStateException("启用无状态会话时 blog.session.token-secret 至少需要32字节");
+        }
+
+        TokenSession tokenSession = new TokenSession(new SignedToken(secret), Duration.ofMinutes(timeoutMinutes),
+                cookieName, secureCookie, this::toPrincipal);
+        SessionUtil.enableTokenSession(tokenSession);
+    }
+
+    /**
+     * 令牌中只有用户ID和角色，用户名和头像从用户缓存中补齐
+     */
+    private User toPrincipal(SignedToken.Claims claims) {
+        UserSnapshot snapshot = userSnapshotCache.get(claims.userId());
+        if (snapshot == null) {
+            return null;
+        }
+
+        User user = new User();
+        user.setId(snapshot.id());
+        user.setUsername(snapshot.username());
+        user.setAvatar(snapshot.avatar());
+        user.setRole(claims.role());
+        return user;
+    }
+}
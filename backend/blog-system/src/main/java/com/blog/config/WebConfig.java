@@ -1,26 +0,0 @@
-package com.blog.config;
-
-import com.blog.interceptor.AuthInterceptor;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-public class WebConfig implements WebMvcConfigurer {
-    
-    @Autowired
-    private AuthInterceptor authInterceptor;
-    
-    @Override
-    public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(authInterceptor)
-                .addPathPatterns("/api/**")
-                .excludePathPatterns(
-                    "/api/user/login",
-                    "/api/user/register",
-                    "/api/test/**",
-                    "/api/debug/**"
-                );
-    }
-}
\ No newline at end of file
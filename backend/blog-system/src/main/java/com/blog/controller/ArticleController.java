@@ -2,6 +2,7 @@ package com.blog.controller;
 
 import com.blog.common.Result;
 import com.blog.entity.Article;
+import com.blog.entity.vo.ArticleSummaryVO;
 import com.blog.entity.User;
 import com.blog.service.ArticleService;
 import com.blog.utils.SessionUtil;
@@ -12,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/articles")
@@ -25,14 +25,32 @@ public class ArticleController {
      * 获取文章列表
      */
     @GetMapping
-    public Result<List<Article>> getArticles(
+    public Result<List<ArticleSummaryVO>> getArticles(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size) {
 
-        List<Article> articles = articleService.getArticles(page, size);
+        List<ArticleSummaryVO> articles = articleService.getArticles(page, size);
         return Result.success(articles);
     }
 
+    /**
+     * 获取文章列表（游标分页）
+     * GET /api/articles?cursor=&size=10，cursor为空表示第一页，之后传入上一页返回的nextCursor
+     */
+    @GetMapping(params = "cursor")
+    public Result<Map<String, Object>> getArticlesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        if (size < 1 || size > 50)
+            size = 10;
+
+        try {
+            return Result.success(articleService.getArticlesByCursor(cursor, size));
+        } catch (RuntimeException e) {
+            return Result.badRequest(e.getMessage());
+        }
+    }
+
     /**
      * 获取文章详情
      */
@@ -123,9 +141,9 @@ public class ArticleController {
      * GET /api/articles/hot?limit=10
      */
     @GetMapping("/hot")
-    public Result<List<Article>> getHotArticles(
+    public Result<List<ArticleSummaryVO>> getHotArticles(
             @RequestParam(defaultValue = "10") Integer limit) {
-        List<Article> articles = articleService.getHotArticles(limit);
+        List<ArticleSummaryVO> articles = articleService.getHotArticles(limit);
         return Result.success(articles);
     }
 
@@ -134,9 +152,9 @@ public class ArticleController {
      * GET /api/articles/latest?limit=10
      */
     @GetMapping("/latest")
-    public Result<List<Article>> getLatestArticles(
+    public Result<List<ArticleSummaryVO>> getLatestArticles(
             @RequestParam(defaultValue = "10") Integer limit) {
-        List<Article> articles = articleService.getLatestArticles(limit);
+        List<ArticleSummaryVO> articles = articleService.getLatestArticles(limit);
         return Result.success(articles);
     }
 
@@ -166,12 +184,12 @@ public class ArticleController {
      * GET /api/articles/category/{categoryId}?page=1&size=10
      */
     @GetMapping("/category/{categoryId}")
-    public Result<List<Article>> getArticlesByCategory(
+    public Result<List<ArticleSummaryVO>> getArticlesByCategory(
             @PathVariable Integer categoryId,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size) {
 
-        List<Article> articles = articleService.getArticlesByCategory(categoryId, page, size);
+        List<ArticleSummaryVO> articles = articleService.getArticlesByCategory(categoryId, page, size);
         return Result.success(articles);
     }
 
@@ -180,12 +198,12 @@ public class ArticleController {
      * GET /api/articles/tag/{tagName}?page=1&size=10
      */
     @GetMapping("/tag/{tagName}")
-    public Result<List<Article>> getArticlesByTag(
+    public Result<List<ArticleSummaryVO>> getArticlesByTag(
             @PathVariable String tagName,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size) {
 
-        List<Article> articles = articleService.getArticlesByTag(tagName, page, size);
+        List<ArticleSummaryVO> articles = articleService.getArticlesByTag(tagName, page, size);
         return Result.success(articles);
     }
 
@@ -224,7 +242,7 @@ public class ArticleController {
         }
 
         // 使用专门的草稿查询方法
-        List<Article> drafts = articleService.getUserDrafts(currentUser.getId(), page, size);
+        List<ArticleSummaryVO> drafts = articleService.getUserDrafts(currentUser.getId(), page, size);
 
         Map<String, Object> result = new HashMap<>();
         result.put("drafts", drafts);
@@ -271,6 +289,7 @@ public class ArticleController {
     public Result<Map<String, Object>> getMyPublishedArticles(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
 
         // 检查登录
@@ -279,12 +298,16 @@ public class ArticleController {
             return Result.unauthorized("请先登录");
         }
 
-        // 获取所有文章然后过滤出当前用户的发布文章
-        List<Article> allArticles = articleService.getArticles(page, size * 5);
-        List<Article> published = allArticles.stream()
-                .filter(article -> article.getUserId().equals(currentUser.getId())
-                        && article.getStatus() == 1)
-                .collect(Collectors.toList());
+        // 传了cursor参数时走游标分页
+        if (cursor != null) {
+            try {
+                return Result.success(articleService.getUserPublishedArticlesByCursor(currentUser.getId(), cursor, size));
+            } catch (RuntimeException e) {
+                return Result.badRequest(e.getMessage());
+            }
+        }
+
+        List<ArticleSummaryVO> published = articleService.getUserPublishedArticles(currentUser.getId(), page, size);
 
         Map<String, Object> result = new HashMap<>();
         result.put("articles", published);
@@ -66,6 +66,7 @@ public class CategoryController {
     /**
      * 分类文章列表（支持排序和分页）
      * GET /api/categories/{id}/articles?page=1&size=15&sort=latest
+     * GET /api/categories/{id}/articles?cursor=xxx&size=15&sort=latest（游标分页，cursor为空表示第一页）
      * 
      * 排序参数：
      * - latest: 最新（按创建时间）
@@ -77,7 +78,8 @@ public class CategoryController {
             @PathVariable Integer id,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "15") Integer size,
-            @RequestParam(defaultValue = "latest") String sort) {
+            @RequestParam(defaultValue = "latest") String sort,
+            @RequestParam(required = false) String cursor) {
 
         // 验证排序参数
         String[] validSorts = { "latest", "hot", "likes" };
@@ -92,6 +94,9 @@ public class CategoryController {
             size = 15;
 
         try {
+            if (cursor != null) {
+                return Result.success(categoryService.getCategoryArticlesByCursor(id, cursor, size, sort.toLowerCase()));
+            }
             Map<String, Object> articlesData = categoryService.getCategoryArticles(id, page, size, sort.toLowerCase());
             return Result.success(articlesData);
         } catch (RuntimeException e) {
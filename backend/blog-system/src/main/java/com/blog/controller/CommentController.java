@@ -37,9 +37,11 @@ public class CommentController {
     public Result<List<Comment>> getCommentsByArticleId(
             @PathVariable Integer articleId,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            HttpServletRequest request) {
         
         List<Comment> comments = commentService.getCommentsByArticleId(articleId, page, size);
+        commentService.markLikedByMe(comments, SessionUtil.getCurrentUserId(request));
         return Result.success(comments);
     }
     
@@ -47,11 +49,60 @@ public class CommentController {
      * 获取文章评论树形结构
      */
     @GetMapping("/article/{articleId}/tree")
-    public Result<List<Comment>> getCommentTree(@PathVariable Integer articleId) {
+    public Result<List<Comment>> getCommentTree(@PathVariable Integer articleId, HttpServletRequest request) {
         List<Comment> comments = commentService.getCommentTreeByArticleId(articleId);
+        commentService.markLikedByMe(comments, SessionUtil.getCurrentUserId(request));
         return Result.success(comments);
     }
     
+    /**
+     * 按讨论串分页获取文章评论（游标分页）
+     * GET /api/comments/article/{articleId}/tree?cursor=&size=20&replies=3
+     * 每个顶级评论只带前replies条回复及回复总数replyCount，其余回复通过 /api/comments/{id}/replies 展开
+     */
+    @GetMapping(value = "/article/{articleId}/tree", params = "cursor")
+    public Result<Map<String, Object>> getCommentThreads(
+            @PathVariable Integer articleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(defaultValue = "3") Integer replies,
+            HttpServletRequest request) {
+        if (size < 1 || size > 50)
+            size = 20;
+        if (replies < 0 || replies > 20)
+            replies = 3;
+
+        try {
+            Map<String, Object> result = commentService.getCommentThreads(articleId, cursor, size, replies);
+            markLikedByMe(result, request);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.badRequest(e.getMessage());
+        }
+    }
+    
+    /**
+     * 展开讨论串的回复（游标分页）
+     * GET /api/comments/{id}/replies?cursor=&size=20，id为顶级评论ID
+     */
+    @GetMapping("/{id}/replies")
+    public Result<Map<String, Object>> getThreadReplies(
+            @PathVariable Integer id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size,
+            HttpServletRequest request) {
+        if (size < 1 || size > 50)
+            size = 20;
+
+        try {
+            Map<String, Object> result = commentService.getThreadReplies(id, cursor, size);
+            markLikedByMe(result, request);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.badRequest(e.getMessage());
+        }
+    }
+    
     /**
      * 创建评论（需要登录）
      */
@@ -193,14 +244,18 @@ public class CommentController {
      */
     @GetMapping("/statistics/{articleId}")
     public Result<Map<String, Object>> getCommentStatistics(@PathVariable Integer articleId) {
-        // 注意：需要先在CommentServiceImpl中实现getCommentStatistics方法
-        // 这里先返回简单统计
-        Map<String, Object> stats = new java.util.HashMap<>();
-        stats.put("articleId", articleId);
-        stats.put("message", "统计功能待实现");
+        Map<String, Object> stats = commentService.getCommentStatistics(articleId);
         return Result.success(stats);
     }
     
+    /**
+     * 标记游标分页结果中当前用户点赞过的评论
+     */
+    @SuppressWarnings("unchecked")
+    private void markLikedByMe(Map<String, Object> page, HttpServletRequest request) {
+        commentService.markLikedByMe((List<Comment>) page.get("comments"), SessionUtil.getCurrentUserId(request));
+    }
+    
     /**
      * 获取客户端IP地址
      */
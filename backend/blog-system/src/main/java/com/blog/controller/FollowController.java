@@ -134,6 +134,28 @@ public class FollowController {
         }
     }
     
+    /**
+     * 获取关注列表（游标分页，翻页深度不影响查询速度）
+     * GET /api/follow/following?cursor=&size=10，首页cursor传空，下一页传返回的nextCursor
+     */
+    @GetMapping(value = "/following", params = "cursor")
+    public Result<Map<String, Object>> getFollowingListByCursor(HttpServletRequest request,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "10") Integer size) {
+        Integer currentUserId = SessionUtil.getCurrentUserId(request);
+        if (currentUserId == null) {
+            return Result.unauthorized("请先登录");
+        }
+        if (size < 1 || size > 50)
+            size = 10;
+        
+        try {
+            return Result.success(followService.getFollowingListByCursor(currentUserId, cursor, size));
+        } catch (RuntimeException e) {
+            return Result.badRequest(e.getMessage());
+        }
+    }
+    
     /**
      * 获取粉丝列表（关注我的人）
      */
@@ -162,6 +184,28 @@ public class FollowController {
         }
     }
     
+    /**
+     * 获取粉丝列表（游标分页）
+     * GET /api/follow/followers?cursor=&size=10
+     */
+    @GetMapping(value = "/followers", params = "cursor")
+    public Result<Map<String, Object>> getFollowerListByCursor(HttpServletRequest request,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "10") Integer size) {
+        Integer currentUserId = SessionUtil.getCurrentUserId(request);
+        if (currentUserId == null) {
+            return Result.unauthorized("请先登录");
+        }
+        if (size < 1 || size > 50)
+            size = 10;
+        
+        try {
+            return Result.success(followService.getFollowerListByCursor(currentUserId, cursor, size));
+        } catch (RuntimeException e) {
+            return Result.badRequest(e.getMessage());
+        }
+    }
+    
     /**
      * 获取关注数量统计
      */
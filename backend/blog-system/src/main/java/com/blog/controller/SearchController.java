@@ -104,15 +104,8 @@ public class SearchController {
             return Result.badRequest("搜索关键词不能为空");
         }
         
-        // 使用反射调用新方法（实际项目中应该先更新接口）
-        try {
-            SearchResult<Tag> result = (SearchResult<Tag>) searchService.getClass()
-                .getMethod("searchTags", String.class, Integer.class, Integer.class)
-                .invoke(searchService, keyword, page, size);
-            return Result.success(result);
-        } catch (Exception e) {
-            return Result.error("标签搜索功能暂不可用");
-        }
+        SearchResult<Tag> result = searchService.searchTags(keyword, page, size);
+        return Result.success(result);
     }
     
     /**
@@ -162,26 +155,8 @@ public class SearchController {
             return Result.success(new java.util.ArrayList<>());
         }
         
-        // 调用服务层获取建议
-        try {
-            List<String> suggestions = (List<String>) searchService.getClass()
-                .getMethod("getSearchSuggestions", String.class, int.class)
-                .invoke(searchService, prefix, limit);
-            return Result.success(suggestions);
-        } catch (Exception e) {
-            // 如果方法不存在，返回示例数据
-            List<String> suggestions = new java.util.ArrayList<>();
-            suggestions.add(prefix + "a");
-            suggestions.add(prefix + "script");
-            suggestions.add(prefix + "开发");
-            suggestions.add(prefix + "教程");
-            
-            if (suggestions.size() > limit) {
-                suggestions = suggestions.subList(0, limit);
-            }
-            
-            return Result.success(suggestions);
-        }
+        List<String> suggestions = searchService.getSearchSuggestions(prefix, limit);
+        return Result.success(suggestions);
     }
     
     /**
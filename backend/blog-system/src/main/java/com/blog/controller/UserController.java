@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -46,16 +47,11 @@ public class UserController {
             User loggedInUser = userService.login(user.getUsername(), user.getPassword());
 
             // 设置Session
-            jakarta.servlet.http.HttpSession session = request.getSession();
-            session.setAttribute(SessionUtil.SESSION_USER, loggedInUser);
-            session.setAttribute(SessionUtil.SESSION_USERNAME, loggedInUser.getUsername());
-            session.setAttribute(SessionUtil.SESSION_USER_ID, loggedInUser.getId());
-            session.setAttribute(SessionUtil.SESSION_ROLE, loggedInUser.getRole());
+            SessionUtil.setLoginUser(request, loggedInUser);
 
-            // 更新最后登录信息
+            // 更新最后登录信息（同时记为一次活动，只记录到内存，定时批量写库）
             String ip = request.getRemoteAddr();
             userService.updateLastLogin(loggedInUser.getId(), ip);
-            userService.updateLastActive(loggedInUser.getId());
 
             return Result.success("登录成功", loggedInUser);
         } catch (RuntimeException e) {
@@ -72,7 +68,13 @@ public class UserController {
         if (currentUser == null) {
             return Result.unauthorized("请先登录");
         }
-        return Result.success(currentUser);
+
+        // Session 中只有精简的登录信息，完整资料从数据库读取
+        User user = userService.getUserById(currentUser.getId());
+        if (user == null) {
+            return Result.unauthorized("请先登录");
+        }
+        return Result.success(user);
     }
 
     /**
@@ -180,15 +182,27 @@ public class UserController {
         }
     }
 
+    /**
+     * 获取在线用户列表
+     */
+    @GetMapping("/online")
+    public Result<List<User>> getOnlineUsers(@RequestParam(defaultValue = "20") Integer limit) {
+        try {
+            int size = Math.max(1, Math.min(limit == null ? 20 : limit, 100));
+            return Result.success("获取在线用户成功", userService.getOnlineUsers(size));
+        } catch (Exception e) {
+            System.err.println("❌ 获取在线用户异常: " + e.getMessage());
+            e.printStackTrace();
+            return Result.error("获取在线用户失败");
+        }
+    }
+
     /**
      * 用户退出登录（REST API方式）
      */
     @PostMapping("/logout")
     public Result<String> logout(HttpServletRequest request) {
-        jakarta.servlet.http.HttpSession session = request.getSession(false);
-        if (session != null) {
-            session.invalidate();
-        }
+        SessionUtil.clearLoginUser(request);
         return Result.success("退出成功");
     }
 
@@ -231,10 +245,7 @@ public class UserController {
 
             if (success) {
                 // 3. 可选：修改密码后强制退出登录（安全考虑）
-                jakarta.servlet.http.HttpSession session = httpRequest.getSession(false);
-                if (session != null) {
-                    session.invalidate();
-                }
+                SessionUtil.clearLoginUser(httpRequest);
 
                 return Result.success("密码修改成功，请重新登录");
             } else {
@@ -1,16 +1,28 @@
 package com.blog.dao;
 
+import com.blog.common.ArticleCursor;
 import com.blog.entity.Article;
 import com.blog.entity.vo.ArticleArchiveVO;
+import com.blog.entity.vo.ArticleSummaryVO;
 
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 @Mapper
 public interface ArticleMapper {
 
+        /**
+         * 列表查询使用的列（不含content正文，正文只在详情查询中加载）
+         */
+        String SUMMARY_COLUMNS = "a.id, a.title, a.summary, a.cover_image, a.status, " +
+                        "a.view_count, a.like_count, a.comment_count, a.user_id, a.category_id, " +
+                        "a.is_top, a.allow_comment, a.tags, a.create_time, a.update_time, " +
+                        "u.username as author_name, u.avatar as author_avatar, c.name as category_name ";
+
         /**
          * 根据ID查询文章
          */
@@ -25,15 +37,33 @@ public interface ArticleMapper {
         /**
          * 查询文章列表（分页）
          */
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 " +
-                        "ORDER BY a.is_top DESC, a.create_time DESC " +
+                        "ORDER BY a.is_top DESC, a.create_time DESC, a.id DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findList(@Param("offset") int offset, @Param("size") int size);
+        List<ArticleSummaryVO> findList(@Param("offset") int offset, @Param("size") int size);
+
+        /**
+         * 查询文章列表（游标分页，cursor为null表示第一页）
+         */
+        @Select({
+                        "<script>",
+                        "SELECT " + SUMMARY_COLUMNS,
+                        "FROM article a ",
+                        "LEFT JOIN user u ON a.user_id = u.id ",
+                        "LEFT JOIN category c ON a.category_id = c.id ",
+                        "WHERE a.status = 1 ",
+                        "<if test='cursor != null'>",
+                        "  AND (a.is_top, a.create_time, a.id) &lt; (#{cursor.isTop}, #{cursor.createTime}, #{cursor.id}) ",
+                        "</if>",
+                        "ORDER BY a.is_top DESC, a.create_time DESC, a.id DESC ",
+                        "LIMIT #{size}",
+                        "</script>"
+        })
+        List<ArticleSummaryVO> findListAfter(@Param("cursor") ArticleCursor cursor, @Param("size") int size);
 
         /**
          * 插入文章
@@ -62,6 +92,62 @@ public interface ArticleMapper {
         @Update("UPDATE article SET view_count = view_count + 1 WHERE id = #{id}")
         int incrementViewCount(Integer id);
 
+        /**
+         * 批量增加阅读量（key: 文章ID, value: 增量）
+         */
+        @Update({
+                        "<script>",
+                        "UPDATE article SET view_count = view_count + CASE id ",
+                        "<foreach collection='deltas' index='articleId' item='delta'>",
+                        "  WHEN #{articleId} THEN #{delta} ",
+                        "</foreach>",
+                        "ELSE 0 END ",
+                        "WHERE id IN ",
+                        "<foreach collection='deltas' index='articleId' open='(' separator=',' close=')'>",
+                        "#{articleId}",
+                        "</foreach>",
+                        "</script>"
+        })
+        int batchIncrementViewCount(@Param("deltas") Map<Integer, Long> deltas);
+
+        /**
+         * 批量查询文章作者（只返回 id、user_id、status）
+         */
+        @Select({
+                        "<script>",
+                        "SELECT id, user_id, status FROM article WHERE id IN ",
+                        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+                        "#{id}",
+                        "</foreach>",
+                        "</script>"
+        })
+        List<Article> findAuthorsByIds(@Param("ids") Collection<Integer> ids);
+
+        /**
+         * 按 comment 表重新计算文章的评论数
+         */
+        @Update({
+                        "<script>",
+                        "UPDATE article a SET a.comment_count = ",
+                        "(SELECT COUNT(*) FROM comment c WHERE c.article_id = a.id AND c.status = 1) ",
+                        "WHERE a.id IN ",
+                        "<foreach collection='articleIds' item='articleId' open='(' separator=',' close=')'>",
+                        "#{articleId}",
+                        "</foreach>",
+                        "</script>"
+        })
+        int refreshCommentCount(@Param("articleIds") List<Integer> articleIds);
+
+        /**
+         * 按 comment 表重新计算所有文章的评论数（只更新有变化的行）
+         */
+        @Update("UPDATE article a " +
+                        "LEFT JOIN (SELECT article_id, COUNT(*) AS cnt FROM comment " +
+                        "           WHERE status = 1 GROUP BY article_id) c ON c.article_id = a.id " +
+                        "SET a.comment_count = COALESCE(c.cnt, 0) " +
+                        "WHERE NOT (a.comment_count <=> COALESCE(c.cnt, 0))")
+        int refreshAllCommentCounts();
+
         /**
          * 搜索文章
          */
@@ -74,7 +160,8 @@ public interface ArticleMapper {
                         "WHERE a.status = 1 ",
                         "  AND (a.title LIKE CONCAT('%', #{keyword}, '%') ",
                         "    OR a.content LIKE CONCAT('%', #{keyword}, '%') ",
-                        "    OR a.tags LIKE CONCAT('%', #{keyword}, '%') ",
+                        "    OR EXISTS (SELECT 1 FROM article_tag at INNER JOIN tag t ON at.tag_id = t.id ",
+                        "      WHERE at.article_id = a.id AND t.name = #{keyword}) ",
                         "    OR a.summary LIKE CONCAT('%', #{keyword}, '%')) ",
                         "ORDER BY a.create_time DESC ",
                         "LIMIT #{offset}, #{size}",
@@ -84,6 +171,51 @@ public interface ArticleMapper {
                         @Param("offset") int offset,
                         @Param("size") int size);
 
+        /**
+         * 根据ID列表查询已发布文章（搜索结果回表）
+         */
+        @Select({
+                        "<script>",
+                        "SELECT a.*, u.username as author_name, c.name as category_name ",
+                        "FROM article a ",
+                        "LEFT JOIN user u ON a.user_id = u.id ",
+                        "LEFT JOIN category c ON a.category_id = c.id ",
+                        "WHERE a.status = 1 AND a.id IN ",
+                        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+                        "#{id}",
+                        "</foreach>",
+                        "</script>"
+        })
+        List<Article> findByIds(@Param("ids") List<Integer> ids);
+
+        /**
+         * 分批读取需要建立搜索索引的文章（按ID递增）
+         * since为null时读取全部已发布文章，否则读取该时间之后有变更的所有文章（含已删除/草稿，用于移出索引）
+         */
+        @Select({
+                        "<script>",
+                        "SELECT id, title, summary, tags, content, status, update_time FROM article ",
+                        "WHERE id &gt; #{afterId} ",
+                        "<if test='since == null'>",
+                        "  AND status = 1 ",
+                        "</if>",
+                        "<if test='since != null'>",
+                        "  AND update_time &gt;= #{since} ",
+                        "</if>",
+                        "ORDER BY id ",
+                        "LIMIT #{limit}",
+                        "</script>"
+        })
+        List<Article> findForSearchIndex(@Param("since") LocalDateTime since,
+                        @Param("afterId") int afterId,
+                        @Param("limit") int limit);
+
+        /**
+         * 查询所有已发布文章的标题和阅读量（用于搜索建议词典）
+         */
+        @Select("SELECT id, title, view_count FROM article WHERE status = 1")
+        List<ArticleSummaryVO> findTitlesForSuggest();
+
         /**
          * 统计搜索文章数量
          */
@@ -93,7 +225,8 @@ public interface ArticleMapper {
                         "WHERE a.status = 1 ",
                         "  AND (a.title LIKE CONCAT('%', #{keyword}, '%') ",
                         "    OR a.content LIKE CONCAT('%', #{keyword}, '%') ",
-                        "    OR a.tags LIKE CONCAT('%', #{keyword}, '%') ",
+                        "    OR EXISTS (SELECT 1 FROM article_tag at INNER JOIN tag t ON at.tag_id = t.id ",
+                        "      WHERE at.article_id = a.id AND t.name = #{keyword}) ",
                         "    OR a.summary LIKE CONCAT('%', #{keyword}, '%'))",
                         "</script>"
         })
@@ -116,7 +249,8 @@ public interface ArticleMapper {
                         "  AND a.content LIKE CONCAT('%', #{content}, '%') ",
                         "</if>",
                         "<if test='tag != null and tag != \"\"'>",
-                        "  AND a.tags LIKE CONCAT('%', #{tag}, '%') ",
+                        "  AND EXISTS (SELECT 1 FROM article_tag at INNER JOIN tag t ON at.tag_id = t.id ",
+                        "    WHERE at.article_id = a.id AND t.name = #{tag}) ",
                         "</if>",
                         "<if test='category != null and category != \"\"'>",
                         "  AND c.name LIKE CONCAT('%', #{category}, '%') ",
@@ -155,7 +289,8 @@ public interface ArticleMapper {
                         "  AND a.content LIKE CONCAT('%', #{content}, '%') ",
                         "</if>",
                         "<if test='tag != null and tag != \"\"'>",
-                        "  AND a.tags LIKE CONCAT('%', #{tag}, '%') ",
+                        "  AND EXISTS (SELECT 1 FROM article_tag at INNER JOIN tag t ON at.tag_id = t.id ",
+                        "    WHERE at.article_id = a.id AND t.name = #{tag}) ",
                         "</if>",
                         "<if test='category != null and category != \"\"'>",
                         "  AND c.name LIKE CONCAT('%', #{category}, '%') ",
@@ -186,9 +321,11 @@ public interface ArticleMapper {
 
         // 新增：根据年月获取文章列表
         @Select("SELECT a.id, a.title, a.create_time, a.tags, " +
-                        "c.name as category_name " +
+                        "a.view_count, a.like_count, a.comment_count, " +
+                        "c.name as category_name, u.username as author_name " +
                         "FROM article a " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
+                        "LEFT JOIN user u ON a.user_id = u.id " +
                         "WHERE YEAR(a.create_time) = #{year} " +
                         "AND MONTH(a.create_time) = #{month} " +
                         "AND a.status = 1 " +
@@ -207,56 +344,54 @@ public interface ArticleMapper {
         /**
          * 获取热门文章（按浏览量排序）
          */
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 " +
                         "ORDER BY a.view_count DESC " +
                         "LIMIT #{limit}")
-        List<Article> findHotArticles(@Param("limit") int limit);
+        List<ArticleSummaryVO> findHotArticles(@Param("limit") int limit);
 
         /**
          * 获取最新文章（按创建时间排序）
          */
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 " +
                         "ORDER BY a.create_time DESC " +
                         "LIMIT #{limit}")
-        List<Article> findLatestArticles(@Param("limit") int limit);
+        List<ArticleSummaryVO> findLatestArticles(@Param("limit") int limit);
 
         /**
          * 根据分类ID获取文章
          */
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 AND a.category_id = #{categoryId} " +
                         "ORDER BY a.create_time DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findByCategoryId(@Param("categoryId") Integer categoryId,
+        List<ArticleSummaryVO> findByCategoryId(@Param("categoryId") Integer categoryId,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
         /**
          * 根据标签名称获取文章
          */
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
-                        "FROM article a " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
+                        "FROM tag t " +
+                        "INNER JOIN article_tag at ON at.tag_id = t.id " +
+                        "INNER JOIN article a ON a.id = at.article_id " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
-                        "WHERE a.status = 1 AND a.tags LIKE CONCAT('%', #{tagName}, '%') " +
-                        "ORDER BY a.create_time DESC " +
+                        "WHERE t.name = #{tagName} AND a.status = 1 " +
+                        "ORDER BY at.article_create_time DESC, at.article_id DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findByTagName(@Param("tagName") String tagName,
+        List<ArticleSummaryVO> findByTagName(@Param("tagName") String tagName,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
@@ -285,60 +420,92 @@ public interface ArticleMapper {
         /**
          * 统计热门标签
          */
-        @Select("SELECT tag_name, COUNT(*) as article_count FROM ( " +
-                        "  SELECT SUBSTRING_INDEX(SUBSTRING_INDEX(tags, ',', n.digit+1), ',', -1) as tag_name " +
-                        "  FROM article " +
-                        "  CROSS JOIN (SELECT 0 digit UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3) n " +
-                        "  WHERE LENGTH(tags) - LENGTH(REPLACE(tags, ',', '')) >= n.digit " +
-                        "    AND status = 1 " +
-                        "    AND tags IS NOT NULL " +
-                        "    AND tags != '' " +
-                        ") t " +
-                        "WHERE tag_name != '' " +
-                        "GROUP BY tag_name " +
+        @Select("SELECT t.name as tag_name, COUNT(*) as article_count " +
+                        "FROM article_tag at " +
+                        "INNER JOIN tag t ON at.tag_id = t.id " +
+                        "INNER JOIN article a ON a.id = at.article_id " +
+                        "WHERE a.status = 1 " +
+                        "GROUP BY t.id, t.name " +
                         "ORDER BY article_count DESC " +
                         "LIMIT #{limit}")
         List<Map<String, Object>> countArticlesByTag(@Param("limit") int limit);
 
         // 根据分类ID获取最新文章
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 AND a.category_id = #{categoryId} " +
-                        "ORDER BY a.create_time DESC " +
+                        "ORDER BY a.create_time DESC, a.id DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findLatestByCategory(@Param("categoryId") Integer categoryId,
+        List<ArticleSummaryVO> findLatestByCategory(@Param("categoryId") Integer categoryId,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
         // 根据分类ID获取热门文章（按浏览量）
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 AND a.category_id = #{categoryId} " +
-                        "ORDER BY a.view_count DESC " +
+                        "ORDER BY a.view_count DESC, a.id DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findHotByCategory(@Param("categoryId") Integer categoryId,
+        List<ArticleSummaryVO> findHotByCategory(@Param("categoryId") Integer categoryId,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
         // 根据分类ID获取按点赞排序的文章
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.status = 1 AND a.category_id = #{categoryId} " +
-                        "ORDER BY a.like_count DESC " +
+                        "ORDER BY a.like_count DESC, a.id DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findLikesByCategory(@Param("categoryId") Integer categoryId,
+        List<ArticleSummaryVO> findLikesByCategory(@Param("categoryId") Integer categoryId,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
+        // 根据分类ID获取文章（游标分页，sortType: latest/hot/likes）
+        @Select({
+                        "<script>",
+                        "SELECT " + SUMMARY_COLUMNS,
+                        "FROM article a ",
+                        "LEFT JOIN user u ON a.user_id = u.id ",
+                        "LEFT JOIN category c ON a.category_id = c.id ",
+                        "WHERE a.status = 1 AND a.category_id = #{categoryId} ",
+                        "<if test='cursor != null'>",
+                        "<choose>",
+                        "<when test='sortType == \"hot\"'>",
+                        "  AND (a.view_count, a.id) &lt; (#{cursor.count}, #{cursor.id}) ",
+                        "</when>",
+                        "<when test='sortType == \"likes\"'>",
+                        "  AND (a.like_count, a.id) &lt; (#{cursor.count}, #{cursor.id}) ",
+                        "</when>",
+                        "<otherwise>",
+                        "  AND (a.create_time, a.id) &lt; (#{cursor.createTime}, #{cursor.id}) ",
+                        "</otherwise>",
+                        "</choose>",
+                        "</if>",
+                        "<choose>",
+                        "<when test='sortType == \"hot\"'>",
+                        "  ORDER BY a.view_count DESC, a.id DESC ",
+                        "</when>",
+                        "<when test='sortType == \"likes\"'>",
+                        "  ORDER BY a.like_count DESC, a.id DESC ",
+                        "</when>",
+                        "<otherwise>",
+                        "  ORDER BY a.create_time DESC, a.id DESC ",
+                        "</otherwise>",
+                        "</choose>",
+                        "LIMIT #{size}",
+                        "</script>"
+        })
+        List<ArticleSummaryVO> findByCategoryAfter(@Param("categoryId") Integer categoryId,
+                        @Param("sortType") String sortType,
+                        @Param("cursor") ArticleCursor cursor,
+                        @Param("size") int size);
+
         // 统计分类下的总阅读量
         @Select("SELECT SUM(view_count) FROM article WHERE category_id = #{categoryId} AND status = 1")
         Integer sumViewCountByCategory(@Param("categoryId") Integer categoryId);
@@ -347,53 +514,42 @@ public interface ArticleMapper {
         @Select("SELECT SUM(like_count) FROM article WHERE category_id = #{categoryId} AND status = 1")
         Integer sumLikeCountByCategory(@Param("categoryId") Integer categoryId);
 
-        // 根据标签名称搜索文章（用于标签页面，带排序）
+        // 根据标签名称获取文章（用于标签页面，带排序）
+        // 先通过 tag.name 唯一索引定位标签，再走 article_tag 取该标签下的文章；
+        // 按时间排序时沿 article_tag(tag_id, article_create_time, article_id) 倒序读取，不需要额外排序
         @Select({
                         "<script>",
-                        "SELECT DISTINCT a.*, u.username as author_name, u.avatar as author_avatar, ",
-                        "c.name as category_name ",
-                        "FROM article a ",
+                        "SELECT " + SUMMARY_COLUMNS,
+                        "FROM tag t ",
+                        "INNER JOIN article_tag at ON at.tag_id = t.id ",
+                        "INNER JOIN article a ON a.id = at.article_id ",
                         "LEFT JOIN user u ON a.user_id = u.id ",
                         "LEFT JOIN category c ON a.category_id = c.id ",
-                        "WHERE a.status = 1 ",
-                        "AND (",
-                        "  a.tags LIKE CONCAT('%', #{tagName}, '%') ",
-                        "  OR EXISTS (",
-                        "    SELECT 1 FROM article_tag at ",
-                        "    INNER JOIN tag t ON at.tag_id = t.id ",
-                        "    WHERE at.article_id = a.id AND t.name = #{tagName}",
-                        "  )",
-                        ") ",
-                        "<if test='sortType != null and sortType == \"hot\"'>",
-                        "  ORDER BY a.view_count DESC ",
-                        "</if>",
-                        "<if test='sortType != null and sortType == \"likes\"'>",
-                        "  ORDER BY a.like_count DESC ",
-                        "</if>",
-                        "<if test='sortType == null or sortType == \"latest\"'>",
-                        "  ORDER BY a.create_time DESC ",
-                        "</if>",
+                        "WHERE t.name = #{tagName} AND a.status = 1 ",
+                        "<choose>",
+                        "<when test='sortType == \"hot\"'>",
+                        "  ORDER BY a.view_count DESC, a.id DESC ",
+                        "</when>",
+                        "<when test='sortType == \"likes\"'>",
+                        "  ORDER BY a.like_count DESC, a.id DESC ",
+                        "</when>",
+                        "<otherwise>",
+                        "  ORDER BY at.article_create_time DESC, at.article_id DESC ",
+                        "</otherwise>",
+                        "</choose>",
                         "LIMIT #{offset}, #{size}",
                         "</script>"
         })
-        List<Article> findByTagNameWithSort(@Param("tagName") String tagName,
+        List<ArticleSummaryVO> findByTagNameWithSort(@Param("tagName") String tagName,
                         @Param("sortType") String sortType,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
         // 统计标签下的文章数量
-        @Select({
-                        "SELECT COUNT(DISTINCT a.id) FROM article a ",
-                        "WHERE a.status = 1 ",
-                        "AND (",
-                        "  a.tags LIKE CONCAT('%', #{tagName}, '%') ",
-                        "  OR EXISTS (",
-                        "    SELECT 1 FROM article_tag at ",
-                        "    INNER JOIN tag t ON at.tag_id = t.id ",
-                        "    WHERE at.article_id = a.id AND t.name = #{tagName}",
-                        "  )",
-                        ")"
-        })
+        @Select("SELECT COUNT(*) FROM tag t " +
+                        "INNER JOIN article_tag at ON at.tag_id = t.id " +
+                        "INNER JOIN article a ON a.id = at.article_id " +
+                        "WHERE t.name = #{tagName} AND a.status = 1")
         int countByTagName(@Param("tagName") String tagName);
 
         // 获取年份统计（每年文章数量）
@@ -405,14 +561,13 @@ public interface ArticleMapper {
         List<Map<String, Object>> getYearStats();
 
         // 获取某年所有文章（用于年份筛选）
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE YEAR(a.create_time) = #{year} AND a.status = 1 " +
                         "ORDER BY a.create_time DESC")
-        List<Article> findByYear(@Param("year") Integer year);
+        List<ArticleSummaryVO> findByYear(@Param("year") Integer year);
 
         // 获取某年每月的统计
         @Select("SELECT MONTH(create_time) as month, COUNT(*) as article_count, " +
@@ -423,31 +578,51 @@ public interface ArticleMapper {
                         "ORDER BY month DESC")
         List<Map<String, Object>> getMonthStatsByYear(@Param("year") Integer year);
 
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.user_id = #{userId} AND a.status = #{status} " +
-                        "ORDER BY a.create_time DESC " +
+                        "ORDER BY a.create_time DESC, a.id DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findByUserIdAndStatus(@Param("userId") Integer userId,
+        List<ArticleSummaryVO> findByUserIdAndStatus(@Param("userId") Integer userId,
                         @Param("status") Integer status,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
+        /**
+         * 查询用户指定状态的文章（游标分页）
+         */
+        @Select({
+                        "<script>",
+                        "SELECT " + SUMMARY_COLUMNS,
+                        "FROM article a ",
+                        "LEFT JOIN user u ON a.user_id = u.id ",
+                        "LEFT JOIN category c ON a.category_id = c.id ",
+                        "WHERE a.user_id = #{userId} AND a.status = #{status} ",
+                        "<if test='cursor != null'>",
+                        "  AND (a.create_time, a.id) &lt; (#{cursor.createTime}, #{cursor.id}) ",
+                        "</if>",
+                        "ORDER BY a.create_time DESC, a.id DESC ",
+                        "LIMIT #{size}",
+                        "</script>"
+        })
+        List<ArticleSummaryVO> findByUserIdAndStatusAfter(@Param("userId") Integer userId,
+                        @Param("status") Integer status,
+                        @Param("cursor") ArticleCursor cursor,
+                        @Param("size") int size);
+
         /**
          * 查询用户的草稿列表（status = 0）
          */
-        @Select("SELECT a.*, u.username as author_name, u.avatar as author_avatar, " +
-                        "c.name as category_name " +
+        @Select("SELECT " + SUMMARY_COLUMNS +
                         "FROM article a " +
                         "LEFT JOIN user u ON a.user_id = u.id " +
                         "LEFT JOIN category c ON a.category_id = c.id " +
                         "WHERE a.user_id = #{userId} AND a.status = 0 " +
                         "ORDER BY a.create_time DESC " +
                         "LIMIT #{offset}, #{size}")
-        List<Article> findDraftsByUserId(@Param("userId") Integer userId,
+        List<ArticleSummaryVO> findDraftsByUserId(@Param("userId") Integer userId,
                         @Param("offset") int offset,
                         @Param("size") int size);
 
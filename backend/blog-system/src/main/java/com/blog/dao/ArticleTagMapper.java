@@ -8,7 +8,9 @@ import java.util.Map;
 @Mapper
 public interface ArticleTagMapper {
     
-    @Insert("INSERT INTO article_tag(article_id, tag_id) VALUES(#{articleId}, #{tagId})")
+    // 同时冗余文章发布时间，标签页按时间排序时直接走 (tag_id, article_create_time, article_id) 索引
+    @Insert("INSERT INTO article_tag(article_id, tag_id, article_create_time) " +
+            "SELECT #{articleId}, #{tagId}, create_time FROM article WHERE id = #{articleId}")
     int insert(@Param("articleId") Integer articleId, @Param("tagId") Integer tagId);
     
     @Delete("DELETE FROM article_tag WHERE article_id = #{articleId}")
@@ -29,6 +31,44 @@ public interface ArticleTagMapper {
     @Select("SELECT COUNT(*) FROM article_tag WHERE article_id = #{articleId} AND tag_id = #{tagId}")
     int exists(@Param("articleId") Integer articleId, @Param("tagId") Integer tagId);
     
+    // ===== 一次性补全：按文章的 tags 字段（逗号分隔，最多10个）建立标签关联，只处理还没有任何关联的文章 =====
+
+    String TAG_POSITIONS = "CROSS JOIN (SELECT 0 digit UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 " +
+            "UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) n ";
+
+    String UNLINKED_ARTICLE = "a.tags IS NOT NULL AND a.tags != '' " +
+            "AND NOT EXISTS (SELECT 1 FROM article_tag x WHERE x.article_id = a.id) ";
+
+    @Select("SELECT EXISTS(SELECT 1 FROM article a WHERE " + UNLINKED_ARTICLE + ")")
+    boolean hasUnlinkedArticles();
+
+    @Insert("INSERT IGNORE INTO tag (name, slug, color) " +
+            "SELECT DISTINCT s.tag_name, s.tag_name, '#409eff' FROM ( " +
+            "  SELECT TRIM(SUBSTRING_INDEX(SUBSTRING_INDEX(a.tags, ',', n.digit + 1), ',', -1)) AS tag_name " +
+            "  FROM article a " +
+            TAG_POSITIONS +
+            "  WHERE " + UNLINKED_ARTICLE +
+            "    AND LENGTH(a.tags) - LENGTH(REPLACE(a.tags, ',', '')) >= n.digit " +
+            ") s WHERE s.tag_name != ''")
+    int insertTagsOfUnlinkedArticles();
+
+    @Insert("INSERT IGNORE INTO article_tag (article_id, tag_id, article_create_time) " +
+            "SELECT a.id, tg.id, a.create_time FROM article a " +
+            TAG_POSITIONS +
+            "INNER JOIN tag tg ON tg.name = TRIM(SUBSTRING_INDEX(SUBSTRING_INDEX(a.tags, ',', n.digit + 1), ',', -1)) " +
+            "WHERE " + UNLINKED_ARTICLE +
+            "  AND LENGTH(a.tags) - LENGTH(REPLACE(a.tags, ',', '')) >= n.digit")
+    int insertLinksOfUnlinkedArticles();
+
+    @Select("SELECT EXISTS(SELECT 1 FROM article_tag WHERE article_create_time IS NULL)")
+    boolean hasMissingArticleCreateTime();
+
+    // 补全新增冗余列之前已有关联的文章发布时间
+    @Update("UPDATE article_tag at INNER JOIN article a ON a.id = at.article_id " +
+            "SET at.article_create_time = a.create_time " +
+            "WHERE at.article_create_time IS NULL")
+    int fillArticleCreateTime();
+
     // 用于标签页面的统计查询
     @Select("SELECT t.id, t.name, t.color, COUNT(at.article_id) as article_count " +
             "FROM tag t " +
@@ -4,6 +4,7 @@ import com.blog.entity.Comment;
 import org.apache.ibatis.annotations.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface CommentMapper {
@@ -19,6 +20,12 @@ public interface CommentMapper {
             "WHERE c.id = #{id} AND c.status = 1")
     Comment findById(Integer id);
 
+    /**
+     * 查询评论的归属和状态字段（不联表，不过滤状态）
+     */
+    @Select("SELECT id, article_id, user_id, root_id, status FROM comment WHERE id = #{id}")
+    Comment findBriefById(Integer id);
+
     /**
      * 根据文章ID查询评论（分页）
      */
@@ -34,6 +41,83 @@ public interface CommentMapper {
                                   @Param("offset") int offset,
                                   @Param("size") int size);
 
+    /**
+     * 查询文章的全部评论（平铺，按时间正序），由调用方在内存中组装成树
+     */
+    @Select("SELECT c.*, u.username, u.avatar as user_avatar, " +
+            "ru.username as reply_username " +
+            "FROM comment c " +
+            "LEFT JOIN user u ON c.user_id = u.id " +
+            "LEFT JOIN user ru ON c.reply_user_id = ru.id " +
+            "WHERE c.article_id = #{articleId} AND c.status = 1 " +
+            "ORDER BY c.create_time ASC, c.id ASC")
+    List<Comment> findAllByArticleId(Integer articleId);
+
+    /**
+     * 游标分页查询文章的顶级评论（按时间正序，createTime 为空表示第一页）
+     */
+    @Select({
+            "<script>",
+            "SELECT c.*, u.username, u.avatar as user_avatar ",
+            "FROM comment c ",
+            "LEFT JOIN user u ON c.user_id = u.id ",
+            "WHERE c.article_id = #{articleId} AND c.parent_id = 0 AND c.status = 1 ",
+            "<if test='createTime != null'>",
+            "AND (c.create_time &gt; #{createTime} OR (c.create_time = #{createTime} AND c.id &gt; #{id})) ",
+            "</if>",
+            "ORDER BY c.create_time ASC, c.id ASC ",
+            "LIMIT #{limit}",
+            "</script>"
+    })
+    List<Comment> findTopLevelAfter(@Param("articleId") Integer articleId,
+                                    @Param("createTime") String createTime,
+                                    @Param("id") Integer id,
+                                    @Param("limit") int limit);
+
+    /**
+     * 批量查询多个讨论串的前几条回复，每条回复带上所在讨论串的回复总数（reply_count）
+     * 至少返回每个讨论串的第一条回复，以便 perThread 为0时也能拿到回复总数
+     */
+    @Select({
+            "<script>",
+            "SELECT * FROM (",
+            "SELECT c.*, u.username, u.avatar as user_avatar, ru.username as reply_username, ",
+            "ROW_NUMBER() OVER (PARTITION BY c.root_id ORDER BY c.create_time ASC, c.id ASC) AS rn, ",
+            "COUNT(*) OVER (PARTITION BY c.root_id) AS reply_count ",
+            "FROM comment c ",
+            "LEFT JOIN user u ON c.user_id = u.id ",
+            "LEFT JOIN user ru ON c.reply_user_id = ru.id ",
+            "WHERE c.status = 1 AND c.root_id IN ",
+            "<foreach collection='rootIds' item='rootId' open='(' separator=',' close=')'>#{rootId}</foreach>",
+            ") t WHERE t.rn &lt;= GREATEST(#{perThread}, 1) ",
+            "ORDER BY t.root_id, t.rn",
+            "</script>"
+    })
+    List<Comment> findThreadPreviews(@Param("rootIds") List<Integer> rootIds,
+                                     @Param("perThread") int perThread);
+
+    /**
+     * 游标分页查询一个讨论串的回复（按时间正序，createTime 为空表示第一页）
+     */
+    @Select({
+            "<script>",
+            "SELECT c.*, u.username, u.avatar as user_avatar, ru.username as reply_username ",
+            "FROM comment c ",
+            "LEFT JOIN user u ON c.user_id = u.id ",
+            "LEFT JOIN user ru ON c.reply_user_id = ru.id ",
+            "WHERE c.root_id = #{rootId} AND c.status = 1 ",
+            "<if test='createTime != null'>",
+            "AND (c.create_time &gt; #{createTime} OR (c.create_time = #{createTime} AND c.id &gt; #{id})) ",
+            "</if>",
+            "ORDER BY c.create_time ASC, c.id ASC ",
+            "LIMIT #{limit}",
+            "</script>"
+    })
+    List<Comment> findRepliesAfter(@Param("rootId") Integer rootId,
+                                   @Param("createTime") String createTime,
+                                   @Param("id") Integer id,
+                                   @Param("limit") int limit);
+
     /**
      * 查询顶级评论（parent_id=0）
      */
@@ -59,10 +143,32 @@ public interface CommentMapper {
     /**
      * 插入评论
      */
-    @Insert("INSERT INTO comment(content, article_id, user_id, parent_id, " +
-            "reply_user_id, like_count, status, ip_address, user_agent, create_time) " +  // 修复：reply_user_id
-            "VALUES(#{content}, #{articleId}, #{userId}, #{parentId}, " +
-            "#{replyUserId}, #{likeCount}, #{status}, #{ipAddress}, #{userAgent}, NOW())")
+    /**
+     * 是否还有没有 root_id 的回复（新增 root_id 列之前的数据）
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM comment WHERE parent_id != 0 AND root_id = 0)")
+    boolean hasRepliesWithoutRoot();
+
+    /**
+     * 补全已有回复的 root_id（沿 parent_id 找到顶级评论）
+     */
+    @Update("UPDATE comment c " +
+            "INNER JOIN ( " +
+            "  WITH RECURSIVE thread (id, root) AS ( " +
+            "    SELECT id, id FROM comment WHERE parent_id = 0 " +
+            "    UNION ALL " +
+            "    SELECT ch.id, t.root FROM comment ch INNER JOIN thread t ON ch.parent_id = t.id " +
+            "  ) " +
+            "  SELECT id, root FROM thread " +
+            ") r ON c.id = r.id " +
+            "SET c.root_id = r.root " +
+            "WHERE c.parent_id != 0 AND c.root_id = 0")
+    int fillRootIds();
+
+    @Insert("INSERT INTO comment(content, article_id, user_id, parent_id, root_id, " +
+            "reply_user_id, like_count, status, ip_address, user_agent, create_time, update_time) " +  // 修复：reply_user_id
+            "VALUES(#{content}, #{articleId}, #{userId}, #{parentId}, #{rootId}, " +
+            "#{replyUserId}, #{likeCount}, #{status}, #{ipAddress}, #{userAgent}, #{createTime}, #{updateTime})")
     @Options(useGeneratedKeys = true, keyProperty = "id")
     int insert(Comment comment);
 
@@ -91,6 +197,24 @@ public interface CommentMapper {
         @Update("UPDATE comment SET like_count = like_count - 1 WHERE id = #{id} AND like_count > 0")
         int decrementLikeCount(Integer id);
 
+        /**
+         * 批量累加点赞数（评论ID -> 增量，可为负数）
+         */
+        @Update({
+                        "<script>",
+                        "UPDATE comment SET like_count = GREATEST(0, like_count + CASE id ",
+                        "<foreach collection='deltas' index='commentId' item='delta'>",
+                        "  WHEN #{commentId} THEN #{delta} ",
+                        "</foreach>",
+                        "ELSE 0 END) ",
+                        "WHERE id IN ",
+                        "<foreach collection='deltas' index='commentId' open='(' separator=',' close=')'>",
+                        "#{commentId}",
+                        "</foreach>",
+                        "</script>"
+        })
+        int batchIncrementLikeCount(@Param("deltas") Map<Integer, Long> deltas);
+
         /**
          * 统计文章评论数量
          */
@@ -114,10 +238,4 @@ public interface CommentMapper {
                         "LIMIT #{limit}")
         List<Comment> findRecentByUserId(@Param("userId") Integer userId,
                         @Param("limit") int limit);
-
-                        /**
- * 获取最后插入的ID（用于调试）
- */
-        @Select("SELECT LAST_INSERT_ID()")
-        Integer getLastInsertId();
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.blog.dao;
 
+import com.blog.common.FollowCursor;
 import com.blog.entity.Follow;
 import com.blog.entity.vo.FollowVO;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -17,18 +19,18 @@ public interface FollowMapper {
     int insert(Follow follow);
 
     /**
-     * 取消关注（软删除）
+     * 取消关注（软删除），只有当前为关注状态时才更新，并发重复请求只有一次生效
      */
     @Update("UPDATE user_follow SET status = 0, update_time = NOW() " +
-            "WHERE follower_id = #{followerId} AND following_id = #{followingId}")
+            "WHERE follower_id = #{followerId} AND following_id = #{followingId} AND status = 1")
     int cancelFollow(@Param("followerId") Integer followerId, 
                      @Param("followingId") Integer followingId);
 
     /**
-     * 重新关注（恢复）
+     * 重新关注（恢复），只有当前为取消状态时才更新，并发重复请求只有一次生效
      */
     @Update("UPDATE user_follow SET status = 1, update_time = NOW() " +
-            "WHERE follower_id = #{followerId} AND followingId = #{followingId}")
+            "WHERE follower_id = #{followerId} AND following_id = #{followingId} AND status = 0")
     int reFollow(@Param("followerId") Integer followerId, 
                  @Param("followingId") Integer followingId);
 
@@ -55,37 +57,107 @@ public interface FollowMapper {
                     @Param("followingId") Integer followingId);
 
     /**
-     * 查询用户关注列表（我关注的人）
+     * 查询用户关注列表（我关注的人），是否互相关注由调用方批量补充
      */
-    @Select("SELECT f.id, u.id as userId, u.username, u.avatar, u.bio, f.create_time as followTime, " +
-            "       1 as isFollowing, " +
-            "       (SELECT COUNT(*) FROM user_follow f2 WHERE f2.follower_id = u.id AND f2.following_id = #{currentUserId} AND f2.status = 1) as isFollowed " +
+    @Select("SELECT f.id, u.id as userId, u.username, u.avatar, u.bio, f.create_time as followTime " +
             "FROM user_follow f " +
             "JOIN user u ON f.following_id = u.id " +
             "WHERE f.follower_id = #{followerId} AND f.status = 1 " +
-            "ORDER BY f.create_time DESC " +
+            "ORDER BY f.create_time DESC, f.id DESC " +
             "LIMIT #{offset}, #{size}")
     List<FollowVO> selectFollowingList(@Param("followerId") Integer followerId,
-                                       @Param("currentUserId") Integer currentUserId,
                                        @Param("offset") int offset,
                                        @Param("size") int size);
 
     /**
-     * 查询用户粉丝列表（关注我的人）
+     * 查询用户粉丝列表（关注我的人），是否回关由调用方批量补充
      */
-    @Select("SELECT f.id, u.id as userId, u.username, u.avatar, u.bio, f.create_time as followTime, " +
-            "       (SELECT COUNT(*) FROM user_follow f2 WHERE f2.follower_id = #{currentUserId} AND f2.following_id = u.id AND f2.status = 1) as isFollowing, " +
-            "       1 as isFollowed " +
+    @Select("SELECT f.id, u.id as userId, u.username, u.avatar, u.bio, f.create_time as followTime " +
             "FROM user_follow f " +
             "JOIN user u ON f.follower_id = u.id " +
             "WHERE f.following_id = #{followingId} AND f.status = 1 " +
-            "ORDER BY f.create_time DESC " +
+            "ORDER BY f.create_time DESC, f.id DESC " +
             "LIMIT #{offset}, #{size}")
     List<FollowVO> selectFollowerList(@Param("followingId") Integer followingId,
-                                      @Param("currentUserId") Integer currentUserId,
                                       @Param("offset") int offset,
                                       @Param("size") int size);
 
+    /**
+     * 游标分页查询关注列表（按关注时间倒序，cursor 为空表示第一页）
+     */
+    @Select({
+            "<script>",
+            "SELECT f.id, u.id as userId, u.username, u.avatar, u.bio, f.create_time as followTime ",
+            "FROM user_follow f ",
+            "JOIN user u ON f.following_id = u.id ",
+            "WHERE f.follower_id = #{followerId} AND f.status = 1 ",
+            "<if test='cursor != null'>",
+            "AND (f.create_time &lt; #{cursor.createTime} ",
+            "     OR (f.create_time = #{cursor.createTime} AND f.id &lt; #{cursor.id})) ",
+            "</if>",
+            "ORDER BY f.create_time DESC, f.id DESC ",
+            "LIMIT #{limit}",
+            "</script>"
+    })
+    List<FollowVO> selectFollowingAfter(@Param("followerId") Integer followerId,
+                                        @Param("cursor") FollowCursor cursor,
+                                        @Param("limit") int limit);
+
+    /**
+     * 游标分页查询粉丝列表（按关注时间倒序，cursor 为空表示第一页）
+     */
+    @Select({
+            "<script>",
+            "SELECT f.id, u.id as userId, u.username, u.avatar, u.bio, f.create_time as followTime ",
+            "FROM user_follow f ",
+            "JOIN user u ON f.follower_id = u.id ",
+            "WHERE f.following_id = #{followingId} AND f.status = 1 ",
+            "<if test='cursor != null'>",
+            "AND (f.create_time &lt; #{cursor.createTime} ",
+            "     OR (f.create_time = #{cursor.createTime} AND f.id &lt; #{cursor.id})) ",
+            "</if>",
+            "ORDER BY f.create_time DESC, f.id DESC ",
+            "LIMIT #{limit}",
+            "</script>"
+    })
+    List<FollowVO> selectFollowerAfter(@Param("followingId") Integer followingId,
+                                       @Param("cursor") FollowCursor cursor,
+                                       @Param("limit") int limit);
+
+    /**
+     * 查询用户关注的全部用户ID（最多 limit 个）
+     */
+    @Select("SELECT following_id FROM user_follow " +
+            "WHERE follower_id = #{followerId} AND status = 1 LIMIT #{limit}")
+    List<Integer> selectFollowingIds(@Param("followerId") Integer followerId,
+                                     @Param("limit") int limit);
+
+    /**
+     * 在给定用户中查出 followerId 关注了哪些
+     */
+    @Select({
+            "<script>",
+            "SELECT following_id FROM user_follow ",
+            "WHERE follower_id = #{followerId} AND status = 1 AND following_id IN ",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"
+    })
+    List<Integer> selectFollowingAmong(@Param("followerId") Integer followerId,
+                                       @Param("ids") Collection<Integer> ids);
+
+    /**
+     * 在给定用户中查出哪些关注了 followingId
+     */
+    @Select({
+            "<script>",
+            "SELECT follower_id FROM user_follow ",
+            "WHERE following_id = #{followingId} AND status = 1 AND follower_id IN ",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"
+    })
+    List<Integer> selectFollowersAmong(@Param("followingId") Integer followingId,
+                                       @Param("ids") Collection<Integer> ids);
+
     /**
      * 统计关注数量
      */
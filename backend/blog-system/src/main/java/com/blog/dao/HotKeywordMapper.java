@@ -0,0 +1,38 @@
+package com.blog.dao;
+
+import com.blog.entity.HotKeyword;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface HotKeywordMapper {
+
+    /**
+     * 查询最近一次检查点的全部热门关键词
+     */
+    @Select("SELECT keyword, score, error, checkpoint_time FROM hot_keyword ORDER BY score DESC")
+    List<HotKeyword> findAll();
+
+    /**
+     * 批量写入检查点（按关键词覆盖）
+     */
+    @Insert({
+            "<script>",
+            "INSERT INTO hot_keyword (keyword, score, error, checkpoint_time) VALUES ",
+            "<foreach collection='keywords' item='k' separator=','>",
+            "(#{k.keyword}, #{k.score}, #{k.error}, #{k.checkpointTime})",
+            "</foreach>",
+            " ON DUPLICATE KEY UPDATE ",
+            "score = VALUES(score), error = VALUES(error), checkpoint_time = VALUES(checkpoint_time)",
+            "</script>"
+    })
+    int batchUpsert(@Param("keywords") List<HotKeyword> keywords);
+
+    /**
+     * 删除早于本次检查点的关键词（已被挤出内存计数的词）
+     */
+    @Delete("DELETE FROM hot_keyword WHERE checkpoint_time < #{checkpointTime}")
+    int deleteBefore(@Param("checkpointTime") LocalDateTime checkpointTime);
+}
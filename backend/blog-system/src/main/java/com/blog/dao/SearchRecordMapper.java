@@ -18,15 +18,62 @@ public interface SearchRecordMapper {
     int upsert(SearchRecord record);
     
     /**
-     * 获取热门搜索关键词
+     * 批量插入或累加搜索记录（按 关键词+用户 唯一键合并）
      */
-    @Select("SELECT keyword, SUM(search_count) as total_count " +
+    @Insert({
+            "<script>",
+            "INSERT INTO search_record (keyword, user_id, search_count, last_search_time, create_time) VALUES ",
+            "<foreach collection='records' item='r' separator=','>",
+            "(#{r.keyword}, #{r.userId}, #{r.searchCount}, NOW(), NOW())",
+            "</foreach>",
+            " ON DUPLICATE KEY UPDATE ",
+            "search_count = search_count + VALUES(search_count), last_search_time = VALUES(last_search_time)",
+            "</script>"
+    })
+    int batchUpsert(@Param("records") List<SearchRecord> records);
+    
+    /**
+     * 检查 (keyword, user_key) 唯一索引是否存在
+     */
+    @Select("SELECT COUNT(*) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = 'search_record' AND index_name = 'uk_keyword_user'")
+    int countKeywordUserIndex();
+    
+    /**
+     * 合并重复的 (关键词, 用户) 记录：次数累加到ID最小的一行，时间取最早创建、最近搜索
+     */
+    @Update("UPDATE search_record r " +
+            "JOIN (SELECT MIN(id) AS keep_id, SUM(search_count) AS total, " +
+            "             MAX(last_search_time) AS last_time, MIN(create_time) AS first_time " +
+            "      FROM search_record GROUP BY keyword, user_key HAVING COUNT(*) > 1) d ON r.id = d.keep_id " +
+            "SET r.search_count = d.total, r.last_search_time = d.last_time, r.create_time = d.first_time")
+    int mergeDuplicates();
+    
+    /**
+     * 删除已合并的重复记录（保留ID最小的一行）
+     */
+    @Delete("DELETE r FROM search_record r " +
+            "JOIN (SELECT keyword, user_key, MIN(id) AS keep_id " +
+            "      FROM search_record GROUP BY keyword, user_key HAVING COUNT(*) > 1) d " +
+            "  ON r.keyword = d.keyword AND r.user_key = d.user_key AND r.id <> d.keep_id")
+    int deleteDuplicates();
+    
+    /**
+     * 创建 (keyword, user_key) 唯一索引
+     */
+    @Update("CREATE UNIQUE INDEX uk_keyword_user ON search_record(keyword, user_key)")
+    void createKeywordUserIndex();
+    
+    /**
+     * 获取近30天各关键词的搜索次数（按次数倒序，用于搜索建议词典）
+     */
+    @Select("SELECT keyword, SUM(search_count) as search_count " +
             "FROM search_record " +
-            "WHERE create_time >= DATE_SUB(NOW(), INTERVAL 30 DAY) " +
+            "WHERE last_search_time >= DATE_SUB(NOW(), INTERVAL 30 DAY) " +
             "GROUP BY keyword " +
-            "ORDER BY total_count DESC " +
+            "ORDER BY search_count DESC " +
             "LIMIT #{limit}")
-    List<String> getHotKeywords(@Param("limit") int limit);
+    List<SearchRecord> getKeywordCounts(@Param("limit") int limit);
     
     /**
      * 获取用户的搜索历史
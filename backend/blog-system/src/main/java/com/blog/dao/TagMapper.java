@@ -75,6 +75,15 @@ public interface TagMapper {
                         "WHERE id = #{tagId}")
         int updateArticleCount(@Param("tagId") Integer tagId);
 
+        /**
+         * 重新统计所有标签的文章数量（只更新有变化的行，用于一次性补全关联后）
+         */
+        @Update("UPDATE tag t " +
+                        "LEFT JOIN (SELECT tag_id, COUNT(*) AS cnt FROM article_tag GROUP BY tag_id) c ON c.tag_id = t.id " +
+                        "SET t.article_count = COALESCE(c.cnt, 0) " +
+                        "WHERE NOT (t.article_count <=> COALESCE(c.cnt, 0))")
+        int refreshAllArticleCounts();
+
         /**
          * 批量查询标签（用于文章编辑时显示）
          */
@@ -1,7 +1,10 @@
 package com.blog.dao;
 
+import com.blog.entity.UserLike;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 @Mapper
 public interface UserLikeMapper {
 
@@ -13,4 +16,44 @@ public interface UserLikeMapper {
 
     @Delete("DELETE FROM user_like WHERE user_id = #{userId} AND comment_id = #{commentId}")
     int delete(@Param("userId") Integer userId, @Param("commentId") Integer commentId);
-}
\ No newline at end of file
+
+    /**
+     * 查询评论的全部点赞用户ID
+     */
+    @Select("SELECT user_id FROM user_like WHERE comment_id = #{commentId}")
+    List<Integer> findUserIdsByCommentId(Integer commentId);
+
+    /**
+     * 在给定的评论中查询用户点赞过的评论ID
+     */
+    @Select({
+            "<script>",
+            "SELECT comment_id FROM user_like WHERE user_id = #{userId} AND comment_id IN ",
+            "<foreach collection='commentIds' item='commentId' open='(' separator=',' close=')'>#{commentId}</foreach>",
+            "</script>"
+    })
+    List<Integer> findLikedCommentIds(@Param("userId") Integer userId,
+                                      @Param("commentIds") List<Integer> commentIds);
+
+    /**
+     * 批量插入点赞记录（已存在的忽略）
+     */
+    @Insert({
+            "<script>",
+            "INSERT IGNORE INTO user_like(user_id, comment_id) VALUES ",
+            "<foreach collection='likes' item='l' separator=','>(#{l.userId}, #{l.commentId})</foreach>",
+            "</script>"
+    })
+    int batchInsert(@Param("likes") List<UserLike> likes);
+
+    /**
+     * 批量删除点赞记录
+     */
+    @Delete({
+            "<script>",
+            "DELETE FROM user_like WHERE (user_id, comment_id) IN ",
+            "<foreach collection='likes' item='l' open='(' separator=',' close=')'>(#{l.userId}, #{l.commentId})</foreach>",
+            "</script>"
+    })
+    int batchDelete(@Param("likes") List<UserLike> likes);
+}
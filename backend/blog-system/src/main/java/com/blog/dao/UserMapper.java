@@ -1,10 +1,13 @@
 package com.blog.dao;
 
 import com.blog.entity.User;
+import com.blog.entity.vo.FollowCountVO;
+import com.blog.entity.vo.UserStatsVO;
 import org.apache.ibatis.annotations.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户数据访问接口
@@ -18,12 +21,25 @@ public interface UserMapper {
         @Select("SELECT * FROM user WHERE username = #{username}")
         User findByUsername(String username);
 
+        /**
+         * 登录查询：只取校验需要的凭证列和登录后返回给前端的资料列，不取统计和登录记录列
+         */
+        @Select("SELECT id, username, password, role, status, email, avatar, bio, create_time " +
+                        "FROM user WHERE username = #{username}")
+        User findLoginByUsername(String username);
+
         /**
          * 根据ID查询用户
          */
         @Select("SELECT * FROM user WHERE id = #{id}")
         User findById(Integer id);
 
+        /**
+         * 根据ID查询用户展示信息（用户名、头像）
+         */
+        @Select("SELECT id, username, avatar FROM user WHERE id = #{id}")
+        User findBriefById(Integer id);
+
         /**
          * 根据邮箱查询用户
          */
@@ -139,6 +155,61 @@ public interface UserMapper {
                         "FROM user WHERE id = #{userId}")
         User getUserStats(Integer userId);
 
+        /**
+         * 按文章表实时统计用户的文章数、获赞数、阅读数（个人主页统计的初始值）
+         */
+        @Select("SELECT COUNT(*) AS article_count, " +
+                        "COALESCE(SUM(like_count), 0) AS like_count, " +
+                        "COALESCE(SUM(view_count), 0) AS view_count " +
+                        "FROM article WHERE user_id = #{userId} AND status = 1")
+        UserStatsVO selectProfileStats(@Param("userId") Integer userId);
+
+        /**
+         * 按文章表重新计算所有用户的文章数、获赞数、阅读数（只更新有变化的行）
+         */
+        @Update("UPDATE user u " +
+                        "LEFT JOIN (SELECT user_id, COUNT(*) AS article_count, " +
+                        "                  SUM(like_count) AS like_count, SUM(view_count) AS view_count " +
+                        "           FROM article WHERE status = 1 GROUP BY user_id) a ON a.user_id = u.id " +
+                        "SET u.article_count = COALESCE(a.article_count, 0), " +
+                        "    u.like_count = COALESCE(a.like_count, 0), " +
+                        "    u.view_count = COALESCE(a.view_count, 0) " +
+                        "WHERE NOT (u.article_count <=> COALESCE(a.article_count, 0)) " +
+                        "   OR NOT (u.like_count <=> COALESCE(a.like_count, 0)) " +
+                        "   OR NOT (u.view_count <=> COALESCE(a.view_count, 0))")
+        int refreshContentStats();
+
+        /**
+         * 查询用户的关注数和粉丝数（user 表上的计数列）
+         */
+        @Select("SELECT following_count, follower_count FROM user WHERE id = #{userId}")
+        FollowCountVO selectFollowCounts(@Param("userId") Integer userId);
+
+        /**
+         * 关注关系变化时同时更新关注者的关注数和被关注者的粉丝数（一条语句按主键顺序加锁）
+         */
+        @Update("UPDATE user SET " +
+                        "following_count = GREATEST(following_count + IF(id = #{followerId}, #{delta}, 0), 0), " +
+                        "follower_count = GREATEST(follower_count + IF(id = #{followingId}, #{delta}, 0), 0) " +
+                        "WHERE id IN (#{followerId}, #{followingId})")
+        int addFollowCounts(@Param("followerId") Integer followerId,
+                        @Param("followingId") Integer followingId,
+                        @Param("delta") int delta);
+
+        /**
+         * 按关注表重新计算所有用户的关注数、粉丝数（只更新有变化的行）
+         */
+        @Update("UPDATE user u " +
+                        "LEFT JOIN (SELECT follower_id, COUNT(*) AS cnt FROM user_follow " +
+                        "           WHERE status = 1 GROUP BY follower_id) fg ON fg.follower_id = u.id " +
+                        "LEFT JOIN (SELECT following_id, COUNT(*) AS cnt FROM user_follow " +
+                        "           WHERE status = 1 GROUP BY following_id) fr ON fr.following_id = u.id " +
+                        "SET u.following_count = COALESCE(fg.cnt, 0), " +
+                        "    u.follower_count = COALESCE(fr.cnt, 0) " +
+                        "WHERE NOT (u.following_count <=> COALESCE(fg.cnt, 0)) " +
+                        "   OR NOT (u.follower_count <=> COALESCE(fr.cnt, 0))")
+        int refreshFollowCounts();
+
         /**
          * 获取在线用户列表
          */
@@ -151,6 +222,65 @@ public interface UserMapper {
                         "LIMIT #{limit}")
         List<User> getOnlineUsers(@Param("limit") int limit);
 
+        /**
+         * 批量更新最后登录信息（两个Map的key相同，均为用户ID）
+         */
+        @Update({
+                        "<script>",
+                        "UPDATE user SET last_login_time = CASE id ",
+                        "<foreach collection='times' index='userId' item='time'>",
+                        "  WHEN #{userId} THEN #{time} ",
+                        "</foreach>",
+                        "ELSE last_login_time END, ",
+                        "last_login_ip = CASE id ",
+                        "<foreach collection='ips' index='userId' item='ip'>",
+                        "  WHEN #{userId} THEN #{ip} ",
+                        "</foreach>",
+                        "ELSE last_login_ip END, ",
+                        "update_time = NOW() ",
+                        "WHERE id IN ",
+                        "<foreach collection='times' index='userId' open='(' separator=',' close=')'>",
+                        "#{userId}",
+                        "</foreach>",
+                        "</script>"
+        })
+        int batchUpdateLastLogin(@Param("times") Map<Integer, LocalDateTime> times,
+                        @Param("ips") Map<Integer, String> ips);
+
+        /**
+         * 批量更新最后活动时间（key: 用户ID, value: 最后活动时间）
+         */
+        @Update({
+                        "<script>",
+                        "UPDATE user SET last_active_time = CASE id ",
+                        "<foreach collection='times' index='userId' item='time'>",
+                        "  WHEN #{userId} THEN #{time} ",
+                        "</foreach>",
+                        "ELSE last_active_time END, ",
+                        "update_time = NOW() ",
+                        "WHERE id IN ",
+                        "<foreach collection='times' index='userId' open='(' separator=',' close=')'>",
+                        "#{userId}",
+                        "</foreach>",
+                        "</script>"
+        })
+        int batchUpdateLastActive(@Param("times") Map<Integer, LocalDateTime> times);
+
+        /**
+         * 根据ID批量查询正常状态用户的公开信息（在线用户列表使用）
+         */
+        @Select({
+                        "<script>",
+                        "SELECT id, username, avatar, bio, last_active_time ",
+                        "FROM user ",
+                        "WHERE status = 1 AND id IN ",
+                        "<foreach collection='ids' item='id' open='(' separator=',' close=')'>",
+                        "#{id}",
+                        "</foreach>",
+                        "</script>"
+        })
+        List<User> findActiveByIds(@Param("ids") List<Integer> ids);
+
         /**
          * 检查用户名是否已存在
          */
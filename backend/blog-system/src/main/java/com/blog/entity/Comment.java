@@ -34,6 +34,11 @@ public class Comment {
      */
     private Integer parentId = 0;
     
+    /**
+     * 所属顶级评论ID（0表示自身是顶级评论），同一讨论串的回复按它分页查询
+     */
+    private Integer rootId = 0;
+    
     /**
      * 回复的用户ID
      */
@@ -94,6 +99,16 @@ public class Comment {
      */
     private List<Comment> childComments;
     
+    /**
+     * 讨论串中的回复总数（非数据库字段，分页加载讨论串时返回，childComments 只包含前几条回复）
+     */
+    private Integer replyCount;
+    
+    /**
+     * 当前登录用户是否点赞过（非数据库字段，未登录时为false）
+     */
+    private Boolean likedByMe;
+    
     // 由于Lombok @Data注解会自动生成getter/setter，
     // 但需要显式添加这些方法以支持树形结构
     
@@ -0,0 +1,15 @@
+package com.blog.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 热门搜索关键词检查点（内存中的衰减计数定期写入，重启时恢复）
+ */
+@Data
+public class HotKeyword {
+    private String keyword;
+    private Double score;                  // 检查点时刻的衰减后搜索次数
+    private Double error;                  // Space-Saving 计数的最大高估量
+    private LocalDateTime checkpointTime;  // 检查点时间
+}
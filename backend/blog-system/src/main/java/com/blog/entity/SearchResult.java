@@ -10,6 +10,7 @@ public class SearchResult<T> {
     private Integer page;             // 当前页码
     private Integer size;             // 每页大小
     private List<T> items;           // 搜索结果列表
+    private boolean partial;          // 是否为部分结果（有子搜索超时或失败）
     
     public SearchResult() {}
     
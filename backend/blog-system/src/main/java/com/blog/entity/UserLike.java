@@ -0,0 +1,16 @@
+package com.blog.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 评论点赞记录
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLike {
+    private Integer userId;     // 点赞用户ID
+    private Integer commentId;  // 评论ID
+}
@@ -0,0 +1,32 @@
+package com.blog.entity.vo;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 文章列表项（不含正文content，只用于列表展示）
+ * 正文只在文章详情接口中加载
+ */
+@Data
+public class ArticleSummaryVO {
+    private Integer id;
+    private String title;
+    private String summary;
+    private String coverImage;
+    private Integer status;
+    private Integer viewCount = 0;
+    private Integer likeCount = 0;
+    private Integer commentCount = 0;
+    private Integer userId;
+    private Integer categoryId;
+    private Integer isTop = 0;
+    private Integer allowComment = 1;
+    private String tags;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+
+    // 关联字段
+    private String authorName;      // 作者用户名
+    private String authorAvatar;    // 作者头像
+    private String categoryName;    // 分类名称
+}
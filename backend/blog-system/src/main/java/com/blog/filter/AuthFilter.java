@@ -1,6 +1,7 @@
 package com.blog.filter;
 
-import com.blog.service.UserService;
+import com.blog.cache.UserActivityTracker;
+import com.blog.entity.User;
 import com.blog.utils.SessionUtil;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,10 +15,10 @@ import java.io.IOException;
 public class AuthFilter implements Filter {
     
     @Autowired
-    private UserService userService;
+    private UserActivityTracker userActivityTracker;
     
-    // 不需要拦截的路径
-    private static final String[] EXCLUDE_PATHS = {
+    // 不需要拦截的路径（启动时编译成前缀树）
+    private static final PathPrefixMatcher EXCLUDE_PATHS = new PathPrefixMatcher(
         "/api/user/login",
         "/api/user/register",
         "/api/test/**",
@@ -25,13 +26,17 @@ public class AuthFilter implements Filter {
         "/traditional/**",
         "/static/**",
         "/error"
-    };
+    );
     
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         // 初始化代码（如果有）
     }
     
+    /**
+     * 唯一的登录校验入口：排除路径直接放行，其余请求解析一次登录用户并缓存到 request 属性，
+     * 之后控制器通过 SessionUtil 读取时不再访问 Session
+     */
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
             throws IOException, ServletException {
@@ -40,38 +45,23 @@ public class AuthFilter implements Filter {
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         HttpServletResponse response = (HttpServletResponse) servletResponse;
         
-        String uri = request.getRequestURI();
-        
         // 检查是否在排除列表中
-        for (String path : EXCLUDE_PATHS) {
-            if (path.endsWith("/**") && uri.startsWith(path.replace("/**", ""))) {
-                chain.doFilter(request, response);
-                return;
-            }
-            if (uri.equals(path)) {
-                chain.doFilter(request, response);
-                return;
-            }
+        if (EXCLUDE_PATHS.matches(request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
         }
         
         // 检查登录状态
-        if (!SessionUtil.isLogin(request)) {
+        User user = SessionUtil.getCurrentUser(request);
+        if (user == null) {
             response.setContentType("application/json;charset=utf-8");
             response.setStatus(401);
             response.getWriter().write("{\"code\":401,\"message\":\"请先登录\"}");
             return;
         }
         
-        // 更新用户最后活动时间
-        try {
-            Integer userId = SessionUtil.getCurrentUserId(request);
-            if (userId != null && userService != null) {
-                userService.updateLastActive(userId);
-            }
-        } catch (Exception e) {
-            // 记录错误但不中断请求
-            System.err.println("❌ 更新用户活动时间失败: " + e.getMessage());
-        }
+        // 更新用户最后活动时间（只记录到内存，定时批量写库）
+        userActivityTracker.touch(user.getId());
         
         chain.doFilter(request, response);
     }
@@ -0,0 +1,103 @@
+package com.blog.filter;
+
+import java.util.Arrays;
+
+/**
+ * 路径匹配前缀树（构造后只读，线程安全）
+ * 支持两种模式：
+ * 1. 精确路径，如 /api/user/login
+ * 2. 以 /** 结尾的目录，如 /api/test/**，匹配 /api/test 本身及其下所有路径（不匹配 /api/testing）
+ * 匹配时按字符沿树向下走一遍，不分配对象，耗时只与请求路径长度有关，与模式个数无关
+ */
+public final class PathPrefixMatcher {
+
+    private static final String ANY_SUFFIX = "/**";
+
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        /**
+         * 有精确路径在此结束
+         */
+        boolean exact;
+        /**
+         * 有 /** 模式的目录在此结束
+         */
+        boolean directory;
+
+        Node child(char c) {
+            char[] keys = labels;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node node = new Node();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[labels.length - 1] = c;
+            children[children.length - 1] = node;
+            return node;
+        }
+    }
+
+    private final Node root = new Node();
+
+    public PathPrefixMatcher(String... patterns) {
+        for (String pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    private void add(String pattern) {
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("路径模式必须以/开头: " + pattern);
+        }
+
+        boolean directory = pattern.endsWith(ANY_SUFFIX);
+        String path = directory ? pattern.substring(0, pattern.length() - ANY_SUFFIX.length()) : pattern;
+        if (path.indexOf('*') >= 0) {
+            throw new IllegalArgumentException("只支持精确路径和以/**结尾的路径模式: " + pattern);
+        }
+
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.addChild(path.charAt(i));
+        }
+        if (directory) {
+            node.directory = true;
+        } else {
+            node.exact = true;
+        }
+    }
+
+    /**
+     * 路径是否匹配任一模式
+     */
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+
+        Node node = root;
+        for (int i = 0, length = path.length(); i < length; i++) {
+            char c = path.charAt(i);
+            if (node.directory && c == '/') {
+                return true;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.exact || node.directory;
+    }
+}
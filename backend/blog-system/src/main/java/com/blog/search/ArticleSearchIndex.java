@@ -0,0 +1,504 @@
+package com.blog.search;
+
+import com.blog.cache.AfterCommit;
+import com.blog.dao.ArticleMapper;
+import com.blog.entity.Article;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 文章全文搜索索引（进程内倒排索引）
+ * 1. 对标题、标签、摘要、正文分字段建立倒排表：词项 -> 文章ID -> 各字段词频
+ * 2. 查询时要求命中所有词项，按 BM25F 打分（各字段词频按字段权重和长度归一化后合并）
+ * 3. 文章创建/更新/删除在事务提交后增量更新索引
+ * 4. 定时把索引快照写到本地文件，重启时先加载快照，再只补索引快照之后有变更的文章
+ * 索引未加载完成前 isReady() 返回false，调用方应回退到数据库查询
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndex {
+
+    private static final int TITLE = 0;
+    private static final int TAGS = 1;
+    private static final int SUMMARY = 2;
+    private static final int CONTENT = 3;
+    private static final int FIELD_COUNT = 4;
+
+    /**
+     * BM25 参数：k1 控制词频饱和速度，b 控制字段长度归一化程度
+     */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * 分词规则变化时递增，旧版本的快照不再加载，重新建立索引
+     */
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int LOAD_BATCH_SIZE = 200;
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+
+    /**
+     * 快照只允许反序列化 IndexData 实际用到的类（HashMap 及其 Entry 数组、Integer、String、LocalDateTime 及其序列化代理），
+     * 基本类型数组（int[]、long[]）不受类名限制；同时限制数组长度（最大的 HashMap 表按文章数估算）和嵌套深度（实际为4层）
+     */
+    private static final ObjectInputFilter SNAPSHOT_FILTER = ObjectInputFilter.Config.createFilter(
+            "com.blog.search.ArticleSearchIndex$IndexData;"
+                    + "java.util.HashMap;java.util.Map$Entry;"
+                    + "java.lang.Integer;java.lang.Number;java.lang.String;"
+                    + "java.time.LocalDateTime;java.time.Ser;"
+                    + "maxarray=4194304;maxdepth=8;!*");
+
+    /**
+     * 排名顺序：得分高的在前，得分相同时新文章（ID大）在前
+     */
+    private static final Comparator<ScoredDoc> RANK_ORDER = Comparator
+            .comparingDouble(ScoredDoc::score).reversed()
+            .thenComparing(Comparator.comparingInt(ScoredDoc::docId).reversed());
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Value("${blog.search.index-enabled:true}")
+    private boolean enabled;
+
+    @Value("${blog.search.snapshot-path:./data/search-index.bin}")
+    private String snapshotPath;
+
+    @Value("${blog.search.boost.title:3.0}")
+    private double titleBoost;
+
+    @Value("${blog.search.boost.tags:2.5}")
+    private double tagsBoost;
+
+    @Value("${blog.search.boost.summary:1.5}")
+    private double summaryBoost;
+
+    @Value("${blog.search.boost.content:1.0}")
+    private double contentBoost;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexData data = new IndexData();
+
+    private volatile boolean ready = false;
+
+    private volatile boolean dirty = false;
+
+    /**
+     * 加载期间发生变更的文章，加载完成后重新索引，避免被加载线程读到的旧数据覆盖
+     */
+    private final Set<Integer> changedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 搜索结果：命中总数 + 当前页的文章ID（已按相关度排序）
+     */
+    public record Hits(int total, List<Integer> ids) {
+        public static final Hits EMPTY = new Hits(0, List.of());
+    }
+
+    private record ScoredDoc(int docId, double score) {
+    }
+
+    /**
+     * 索引数据，整体序列化为快照
+     */
+    static class IndexData implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int version = SNAPSHOT_VERSION;
+        /**
+         * 词项 -> (文章ID -> 各字段词频)
+         */
+        private final HashMap<String, HashMap<Integer, int[]>> postings = new HashMap<>();
+        /**
+         * 文章ID -> 各字段长度（词项数）
+         */
+        private final HashMap<Integer, int[]> docLengths = new HashMap<>();
+        /**
+         * 文章ID -> 包含的词项（删除或更新文章时用来清理倒排表）
+         */
+        private final HashMap<Integer, String[]> docTerms = new HashMap<>();
+        private final long[] totalLengths = new long[FIELD_COUNT];
+        /**
+         * 已索引文章的最大更新时间，重启后从这里开始补索引
+         */
+        private LocalDateTime indexedUntil;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程加载索引，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        try {
+            IndexData snapshot = readSnapshot();
+            LocalDateTime since = null;
+            if (snapshot != null) {
+                lock.writeLock().lock();
+                try {
+                    data = snapshot;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                since = snapshot.indexedUntil;
+            }
+
+            int changed = catchUp(since);
+            ready = true;
+
+            for (Integer id : changedDuringLoad) {
+                reindex(id);
+            }
+            changedDuringLoad.clear();
+
+            log.info("搜索索引加载完成: 快照={}, 补索引文章数={}, 文章总数={}, 耗时={}ms",
+                    snapshot != null, changed, documentCount(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("搜索索引加载失败，搜索将回退到数据库查询", e);
+        }
+    }
+
+    /**
+     * 分批读取文章建立索引
+     * @param since 为null时全量索引已发布文章，否则只处理该时间之后有变更的文章
+     */
+    private int catchUp(LocalDateTime since) {
+        int count = 0;
+        int afterId = 0;
+        while (true) {
+            List<Article> batch = articleMapper.findForSearchIndex(since, afterId, LOAD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Article article : batch) {
+                    apply(article);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            count += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 文章发生变更（创建/更新/删除），事务提交后重新索引该文章
+     */
+    public void onArticleChanged(Integer id) {
+        if (!enabled || id == null) {
+            return;
+        }
+
+        AfterCommit.run(() -> reindex(id));
+    }
+
+    private void reindex(Integer id) {
+        if (!ready) {
+            changedDuringLoad.add(id);
+        }
+
+        try {
+            Article article = articleMapper.findByIdWithoutStatus(id);
+            lock.writeLock().lock();
+            try {
+                if (article == null) {
+                    removeDocument(id);
+                } else {
+                    apply(article);
+                }
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("更新搜索索引失败, articleId: {}", id, e);
+        }
+    }
+
+    /**
+     * 已发布的文章加入索引，其它状态从索引中移除（调用方持有写锁）
+     */
+    private void apply(Article article) {
+        if (article.getStatus() != null && article.getStatus() == 1) {
+            addDocument(article);
+        } else {
+            removeDocument(article.getId());
+        }
+
+        LocalDateTime updateTime = article.getUpdateTime();
+        if (updateTime != null && (data.indexedUntil == null || updateTime.isAfter(data.indexedUntil))) {
+            data.indexedUntil = updateTime;
+        }
+        dirty = true;
+    }
+
+    private void addDocument(Article article) {
+        Integer id = article.getId();
+        removeDocument(id);
+
+        String[] fields = new String[FIELD_COUNT];
+        fields[TITLE] = article.getTitle();
+        fields[TAGS] = article.getTags();
+        fields[SUMMARY] = article.getSummary();
+        fields[CONTENT] = article.getContent() == null ? null : HTML_TAG.matcher(article.getContent()).replaceAll(" ");
+
+        Map<String, int[]> termFreqs = new HashMap<>();
+        int[] lengths = new int[FIELD_COUNT];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            for (String token : SearchTokenizer.tokenize(fields[field])) {
+                termFreqs.computeIfAbsent(token, t -> new int[FIELD_COUNT])[field]++;
+                lengths[field]++;
+            }
+        }
+
+        for (Map.Entry<String, int[]> entry : termFreqs.entrySet()) {
+            data.postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(id, entry.getValue());
+        }
+        data.docTerms.put(id, termFreqs.keySet().toArray(new String[0]));
+        data.docLengths.put(id, lengths);
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            data.totalLengths[field] += lengths[field];
+        }
+    }
+
+    private void removeDocument(Integer id) {
+        String[] terms = data.docTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            HashMap<Integer, int[]> posting = data.postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    data.postings.remove(term);
+                }
+            }
+        }
+
+        int[] lengths = data.docLengths.remove(id);
+        if (lengths != null) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                data.totalLengths[field] -= lengths[field];
+            }
+        }
+    }
+
+    /**
+     * 搜索文章，返回命中总数和当前页的文章ID
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenizeQuery(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return Hits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = data.docLengths.size();
+            if (docCount == 0) {
+                return Hits.EMPTY;
+            }
+
+            // 所有词项都必须命中，任一词项没有倒排表直接返回空
+            List<HashMap<Integer, int[]>> postings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                HashMap<Integer, int[]> posting = data.postings.get(term);
+                if (posting == null) {
+                    return Hits.EMPTY;
+                }
+                postings.add(posting);
+            }
+            // 从最短的倒排表开始遍历
+            postings.sort(Comparator.comparingInt(Map::size));
+
+            double[] idf = new double[postings.size()];
+            for (int t = 0; t < postings.size(); t++) {
+                int df = postings.get(t).size();
+                idf[t] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+
+            double[] avgLengths = new double[FIELD_COUNT];
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                avgLengths[field] = Math.max(1.0, (double) data.totalLengths[field] / docCount);
+            }
+            double[] boosts = {titleBoost, tagsBoost, summaryBoost, contentBoost};
+
+            // 只保留前 offset+limit 个结果的小顶堆
+            int topN = offset + limit;
+            PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(RANK_ORDER.reversed());
+            int total = 0;
+
+            candidates:
+            for (Map.Entry<Integer, int[]> candidate : postings.get(0).entrySet()) {
+                int docId = candidate.getKey();
+                int[] lengths = data.docLengths.get(docId);
+                double score = 0;
+                for (int t = 0; t < postings.size(); t++) {
+                    int[] tf = t == 0 ? candidate.getValue() : postings.get(t).get(docId);
+                    if (tf == null) {
+                        continue candidates;
+                    }
+                    score += idf[t] * termWeight(tf, lengths, avgLengths, boosts);
+                }
+
+                total++;
+                heap.offer(new ScoredDoc(docId, score));
+                if (heap.size() > topN) {
+                    heap.poll();
+                }
+            }
+
+            List<ScoredDoc> top = new ArrayList<>(heap);
+            top.sort(RANK_ORDER);
+            List<Integer> ids = new ArrayList<>();
+            for (int i = offset; i < top.size(); i++) {
+                ids.add(top.get(i).docId());
+            }
+            return new Hits(total, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25F：各字段词频按字段长度归一化并乘以字段权重后合并，再做词频饱和
+     */
+    private static double termWeight(int[] tf, int[] lengths, double[] avgLengths, double[] boosts) {
+        double weighted = 0;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (tf[field] > 0) {
+                double norm = 1 - B + B * lengths[field] / avgLengths[field];
+                weighted += boosts[field] * tf[field] / norm;
+            }
+        }
+        return weighted * (K1 + 1) / (weighted + K1);
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return data.docLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 定时写快照（索引有变化时）
+     */
+    @Scheduled(fixedDelayString = "${blog.search.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!ready || !dirty) {
+            return;
+        }
+
+        lock.readLock().lock();
+        try {
+            dirty = false;
+            writeSnapshot(data);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("写入搜索索引快照失败: {}", snapshotPath, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * 先写临时文件再原子替换，避免进程中途退出留下损坏的快照
+     */
+    private void writeSnapshot(IndexData snapshot) throws IOException {
+        Path path = Paths.get(snapshotPath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+            out.writeObject(snapshot);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private IndexData readSnapshot() {
+        Path path = Paths.get(snapshotPath).toAbsolutePath();
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            in.setObjectInputFilter(SNAPSHOT_FILTER);
+            IndexData snapshot = (IndexData) in.readObject();
+            if (snapshot.version != SNAPSHOT_VERSION || snapshot.indexedUntil == null) {
+                log.warn("搜索索引快照版本不匹配，重新建立索引");
+                return null;
+            }
+            return snapshot;
+        } catch (Exception e) {
+            log.warn("读取搜索索引快照失败，重新建立索引: {}", e.getMessage());
+            return null;
+        }
+    }
+}
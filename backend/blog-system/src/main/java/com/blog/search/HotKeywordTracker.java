@@ -0,0 +1,291 @@
+package com.blog.search;
+
+import com.blog.dao.HotKeywordMapper;
+import com.blog.dao.SearchRecordMapper;
+import com.blog.entity.HotKeyword;
+import com.blog.entity.SearchRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 热门搜索关键词统计
+ * 1. 用 Space-Saving 算法在固定数量的计数器内追踪搜索次数最多的关键词：
+ *    已追踪的词直接累加；计数器用满时替换当前计数最小的词，新词继承其计数（记为误差上限），内存占用与关键词总数无关
+ * 2. 计数按半衰期指数衰减，近期的搜索权重更高；实现上按"前向衰减"给新事件乘以递增的权重，
+ *    所有计数器同比例变化，不需要定时逐个衰减，排序也不受影响
+ * 3. 计数器按计数有序存放，取前k个只需从大到小遍历k个元素
+ * 4. 定时把衰减后的计数写入 hot_keyword 表作为检查点，重启时从检查点恢复
+ */
+@Slf4j
+@Component
+public class HotKeywordTracker {
+
+    /**
+     * 与 search_record.keyword、hot_keyword.keyword 列长度一致
+     */
+    private static final int MAX_KEYWORD_LENGTH = 100;
+
+    /**
+     * 权重指数超过该值时把所有计数换算到当前时刻，避免 double 溢出
+     */
+    private static final double MAX_EXPONENT = 50;
+
+    private static final Comparator<Counter> COUNTER_ORDER = Comparator
+            .comparingDouble((Counter c) -> c.count)
+            .thenComparing(c -> c.key);
+
+    @Autowired
+    private HotKeywordMapper hotKeywordMapper;
+
+    @Autowired
+    private SearchRecordMapper searchRecordMapper;
+
+    @Value("${blog.search.hot-keywords.capacity:1000}")
+    private int capacity;
+
+    @Value("${blog.search.hot-keywords.half-life-hours:24}")
+    private double halfLifeHours;
+
+    /**
+     * 规范化后的关键词 -> 计数器
+     */
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    /**
+     * 按计数从小到大排列，first() 为替换对象；修改计数前必须先移出再放回
+     */
+    private final TreeSet<Counter> ordered = new TreeSet<>(COUNTER_ORDER);
+
+    /**
+     * 每毫秒的衰减率
+     */
+    private double decayRate;
+
+    /**
+     * 计数换算的基准时刻：计数器中的值是以此刻为基准的权重和
+     */
+    private long landmark;
+
+    private boolean dirty;
+
+    private static final class Counter {
+        final String key;
+        String keyword;
+        double count;
+        double error;
+
+        Counter(String key, String keyword, double count, double error) {
+            this.key = key;
+            this.keyword = keyword;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        decayRate = Math.log(2) / (halfLifeHours * 3600_000L);
+        landmark = System.currentTimeMillis();
+        restore();
+    }
+
+    /**
+     * 记录一次搜索
+     */
+    public void record(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return;
+        }
+
+        String text = keyword.trim();
+        if (text.codePointCount(0, text.length()) > MAX_KEYWORD_LENGTH) {
+            text = text.substring(0, text.offsetByCodePoints(0, MAX_KEYWORD_LENGTH));
+        }
+
+        synchronized (this) {
+            add(text, weightAt(System.currentTimeMillis()), 0);
+            dirty = true;
+        }
+    }
+
+    /**
+     * 当前最热门的最多limit个关键词（按衰减后的搜索次数倒序）
+     */
+    public synchronized List<String> top(int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, ordered.size()));
+        Iterator<Counter> it = ordered.descendingIterator();
+        while (it.hasNext() && result.size() < limit) {
+            result.add(it.next().keyword);
+        }
+        return result;
+    }
+
+    /**
+     * 当前最热门的最多limit个关键词及换算到当前时刻的计数（按计数倒序）
+     */
+    public synchronized List<HotKeyword> topScores(int limit) {
+        double scale = Math.exp(-decayRate * (System.currentTimeMillis() - landmark));
+        List<HotKeyword> result = new ArrayList<>(Math.min(limit, ordered.size()));
+        Iterator<Counter> it = ordered.descendingIterator();
+        while (it.hasNext() && result.size() < limit) {
+            Counter counter = it.next();
+            HotKeyword hotKeyword = new HotKeyword();
+            hotKeyword.setKeyword(counter.keyword);
+            hotKeyword.setScore(counter.count * scale);
+            hotKeyword.setError(counter.error * scale);
+            result.add(hotKeyword);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    /**
+     * 定时写入检查点
+     */
+    @Scheduled(fixedDelayString = "${blog.search.hot-keywords.checkpoint-interval-ms:300000}",
+            initialDelayString = "${blog.search.hot-keywords.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        LocalDateTime checkpointTime = LocalDateTime.now().withNano(0);
+        List<HotKeyword> snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            double scale = Math.exp(-decayRate * (System.currentTimeMillis() - landmark));
+            snapshot = new ArrayList<>(counters.size());
+            for (Counter counter : ordered.descendingSet()) {
+                HotKeyword hotKeyword = new HotKeyword();
+                hotKeyword.setKeyword(counter.keyword);
+                hotKeyword.setScore(counter.count * scale);
+                hotKeyword.setError(counter.error * scale);
+                hotKeyword.setCheckpointTime(checkpointTime);
+                snapshot.add(hotKeyword);
+            }
+            dirty = false;
+        }
+
+        try {
+            for (int from = 0; from < snapshot.size(); from += 500) {
+                hotKeywordMapper.batchUpsert(snapshot.subList(from, Math.min(from + 500, snapshot.size())));
+            }
+            hotKeywordMapper.deleteBefore(checkpointTime);
+        } catch (Exception e) {
+            log.error("写入热门关键词检查点失败", e);
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前写入最后一次检查点
+     */
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    /**
+     * 从检查点恢复；没有检查点时（首次启动）用近期搜索记录初始化
+     */
+    private void restore() {
+        try {
+            List<HotKeyword> saved = hotKeywordMapper.findAll();
+            synchronized (this) {
+                if (!saved.isEmpty()) {
+                    for (HotKeyword hotKeyword : saved) {
+                        long age = hotKeyword.getCheckpointTime() == null ? 0
+                                : Math.max(0, Duration.between(hotKeyword.getCheckpointTime(), LocalDateTime.now()).toMillis());
+                        double scale = Math.exp(-decayRate * age);
+                        add(hotKeyword.getKeyword(), value(hotKeyword.getScore()) * scale, value(hotKeyword.getError()) * scale);
+                    }
+                    log.info("热门关键词已从检查点恢复: {}", counters.size());
+                    return;
+                }
+            }
+
+            List<SearchRecord> records = searchRecordMapper.getKeywordCounts(capacity);
+            synchronized (this) {
+                for (SearchRecord record : records) {
+                    add(record.getKeyword(), record.getSearchCount() == null ? 0 : record.getSearchCount(), 0);
+                }
+                dirty = !records.isEmpty();
+            }
+            log.info("热门关键词已从搜索记录初始化: {}", counters.size());
+        } catch (Exception e) {
+            log.error("恢复热门关键词失败，从空统计开始", e);
+        }
+    }
+
+    private static double value(Double d) {
+        return d == null ? 0 : d;
+    }
+
+    /**
+     * 时刻now的事件相对基准时刻的权重，必要时先整体换算基准时刻
+     */
+    private double weightAt(long now) {
+        double exponent = decayRate * (now - landmark);
+        if (exponent > MAX_EXPONENT) {
+            double scale = Math.exp(-exponent);
+            List<Counter> all = new ArrayList<>(ordered);
+            ordered.clear();
+            for (Counter counter : all) {
+                counter.count *= scale;
+                counter.error *= scale;
+                ordered.add(counter);
+            }
+            landmark = now;
+            exponent = 0;
+        }
+        return Math.exp(exponent);
+    }
+
+    /**
+     * Space-Saving 更新：已追踪则累加，未满则新建，已满则替换计数最小的词
+     */
+    private void add(String keyword, double weight, double error) {
+        if (keyword == null || keyword.isBlank() || weight <= 0) {
+            return;
+        }
+        String key = keyword.trim().toLowerCase(Locale.ROOT);
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count += weight;
+            counter.error += error;
+            ordered.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(key, keyword.trim(), weight, error);
+        } else {
+            Counter min = ordered.pollFirst();
+            counters.remove(min.key);
+            counter = new Counter(key, keyword.trim(), min.count + weight, min.count + error);
+        }
+        counters.put(key, counter);
+        ordered.add(counter);
+    }
+}
@@ -0,0 +1,244 @@
+package com.blog.search;
+
+import com.blog.dao.SearchRecordMapper;
+import com.blog.entity.SearchRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 搜索记录写缓冲
+ * 1. 搜索请求只在内存中按 (关键词, 用户) 累加次数，不在请求线程上写库
+ * 2. 定时或缓冲的关键词数达到阈值时，用多行 INSERT ... ON DUPLICATE KEY UPDATE 批量写回
+ * 3. 缓冲的关键词数有上限，刷不及时（如关键词洪泛）时丢弃新关键词并计数，不会无限占用内存
+ * 4. 应用关闭前把剩余记录写回
+ * 5. 写回失败时对半拆分重试，定位到单行仍写不进去（如外键不存在、字符集不支持的字符）就记录日志后丢弃，
+ *    不会因为一行坏数据让整批反复失败、占满缓冲；数据库连接不可用时整批放回缓冲，等下次写回
+ * 6. 启动时检查 (关键词, 用户) 唯一索引：旧数据有重复行导致建索引失败时，先合并重复行再建索引；
+ *    没有这个索引 ON DUPLICATE KEY 不会合并，每次写回都会插入新行
+ */
+@Slf4j
+@Component
+public class SearchRecordBuffer {
+
+    /**
+     * 与 search_record.keyword 列长度一致
+     */
+    private static final int MAX_KEYWORD_LENGTH = 100;
+
+    @Autowired
+    private SearchRecordMapper searchRecordMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${blog.search.record-buffer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${blog.search.record-buffer.max-keys:10000}")
+    private int maxKeys;
+
+    /**
+     * (关键词, 用户ID) -> 尚未写回的搜索次数
+     */
+    private final ConcurrentHashMap<Key, Integer> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "search-record-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Key(String keyword, Integer userId) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            if (searchRecordMapper.countKeywordUserIndex() > 0) {
+                return;
+            }
+
+            log.warn("search_record 缺少唯一索引 uk_keyword_user，开始合并重复的搜索记录");
+            Integer removed = transactionTemplate.execute(status -> {
+                searchRecordMapper.mergeDuplicates();
+                return searchRecordMapper.deleteDuplicates();
+            });
+            searchRecordMapper.createKeywordUserIndex();
+            log.info("已合并重复搜索记录 {} 行并创建唯一索引 uk_keyword_user", removed);
+        } catch (Exception e) {
+            log.error("创建 search_record 唯一索引失败，搜索记录将无法按 (关键词, 用户) 合并", e);
+        }
+    }
+
+    /**
+     * 记录一次搜索
+     */
+    public void record(String keyword, Integer userId) {
+        if (keyword == null || keyword.isBlank()) {
+            return;
+        }
+
+        String normalized = keyword.trim();
+        if (normalized.codePointCount(0, normalized.length()) > MAX_KEYWORD_LENGTH) {
+            // 按码点截断，不把代理对拆成半个字符
+            normalized = normalized.substring(0, normalized.offsetByCodePoints(0, MAX_KEYWORD_LENGTH));
+        }
+        add(new Key(normalized, userId), 1);
+
+        if (pending.size() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void add(Key key, int count) {
+        if (pending.size() >= maxKeys && !pending.containsKey(key)) {
+            dropped.add(count);
+            requestFlush();
+            return;
+        }
+        pending.merge(key, count, Integer::sum);
+    }
+
+    /**
+     * 缓冲达到阈值时在后台线程提前写回，同一时间最多排队一次
+     */
+    private void requestFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (Exception e) {
+                // 关闭过程中不再接受任务，由 shutdown() 统一写回
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 定时批量写回
+     */
+    @Scheduled(fixedDelayString = "${blog.search.record-buffer.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            List<SearchRecord> batch = new ArrayList<>();
+            for (Key key : pending.keySet()) {
+                // remove 与 merge 都是原子操作，取走之后的新搜索会重新累加，不会丢失
+                Integer count = pending.remove(key);
+                if (count == null) {
+                    continue;
+                }
+
+                SearchRecord record = new SearchRecord();
+                record.setKeyword(key.keyword());
+                record.setUserId(key.userId());
+                record.setSearchCount(count);
+                batch.add(record);
+
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+
+            long droppedCount = dropped.sumThenReset();
+            if (droppedCount > 0) {
+                log.warn("搜索记录缓冲已满，丢弃搜索次数: {}", droppedCount);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 写回一批记录
+     * 数据库不可用时整批放回缓冲等待下次重试；其他失败对半拆分后分别重试，单行仍失败则丢弃
+     */
+    private void writeBatch(List<SearchRecord> batch) {
+        try {
+            searchRecordMapper.batchUpsert(batch);
+        } catch (Exception e) {
+            if (isUnavailable(e)) {
+                log.error("批量写入搜索记录失败，放回缓冲等待重试, 记录数: {}", batch.size(), e);
+                for (SearchRecord record : batch) {
+                    add(new Key(record.getKeyword(), record.getUserId()), record.getSearchCount());
+                }
+                return;
+            }
+
+            if (batch.size() == 1) {
+                SearchRecord record = batch.get(0);
+                log.error("搜索记录无法写入，已丢弃: keyword={}, userId={}, count={}",
+                        record.getKeyword(), record.getUserId(), record.getSearchCount(), e);
+                return;
+            }
+
+            log.warn("批量写入搜索记录失败，拆分后重试, 记录数: {}, 原因: {}", batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            writeBatch(batch.subList(0, middle));
+            writeBatch(batch.subList(middle, batch.size()));
+        }
+    }
+
+    /**
+     * 连接失败、超时、死锁等与具体数据无关的错误，拆分重试没有意义
+     */
+    private boolean isUnavailable(Exception e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException;
+    }
+
+    public int pendingSize() {
+        return pending.size();
+    }
+
+    /**
+     * 应用关闭前把剩余记录写回
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
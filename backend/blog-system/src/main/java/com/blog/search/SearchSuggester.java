@@ -0,0 +1,209 @@
+package com.blog.search;
+
+import com.blog.dao.ArticleMapper;
+import com.blog.cache.AfterCommit;
+import com.blog.dao.TagMapper;
+import com.blog.entity.HotKeyword;
+import com.blog.entity.Tag;
+import com.blog.entity.vo.ArticleSummaryVO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 搜索建议（自动完成）
+ * 词典来源：文章标题（按阅读量）、标签名（按文章数）、近期搜索关键词（按搜索次数），同一个词在多个来源出现时权重相加
+ * 1. 搜索关键词直接取 HotKeywordTracker 内存中的热门词，定时刷新不查询数据库
+ * 2. 文章标题和标签只在文章、标签变更（事务提交后）时标记为待重建，下次定时刷新时重新加载；
+ *    阅读量、文章数的缓慢变化按 resync-interval-ms 周期性重新加载一次
+ * 3. 新数据与上次的结果比较，只把有变化的词条更新到前缀树
+ */
+@Slf4j
+@Component
+public class SearchSuggester {
+
+    private static final int SOURCE_TITLE = 0;
+    private static final int SOURCE_TAG = 1;
+    private static final int SOURCE_KEYWORD = 2;
+    private static final int SOURCE_COUNT = 3;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private HotKeywordTracker hotKeywordTracker;
+
+    @Value("${blog.search.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${blog.search.suggest.keyword-limit:1000}")
+    private int keywordLimit;
+
+    @Value("${blog.search.suggest.resync-interval-ms:3600000}")
+    private long resyncIntervalMs;
+
+    private SuggestTrie trie;
+
+    /**
+     * 各来源上次加载的词条：规范化后的词 -> 候选词
+     */
+    @SuppressWarnings("unchecked")
+    private final Map<String, Candidate>[] sources = new Map[SOURCE_COUNT];
+
+    /**
+     * 文章标题、标签是否需要重新加载（启动时需要）
+     */
+    private final AtomicBoolean titlesChanged = new AtomicBoolean(true);
+    private final AtomicBoolean tagsChanged = new AtomicBoolean(true);
+
+    private volatile long lastResync = System.currentTimeMillis();
+
+    private record Candidate(String text, long weight) {
+    }
+
+    @PostConstruct
+    public void init() {
+        trie = new SuggestTrie(maxResults);
+        for (int i = 0; i < SOURCE_COUNT; i++) {
+            sources[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * 获取以prefix开头的建议词（按热度排序）
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, Math.min(limit, maxResults));
+    }
+
+    /**
+     * 文章新增、修改、删除后调用：标题和标签的文章数都可能变化
+     */
+    public void onArticleChanged() {
+        AfterCommit.run(() -> {
+            titlesChanged.set(true);
+            tagsChanged.set(true);
+        });
+    }
+
+    /**
+     * 标签新增、修改、删除后调用
+     */
+    public void onTagChanged() {
+        AfterCommit.run(() -> tagsChanged.set(true));
+    }
+
+    /**
+     * 定时刷新词典（启动后立即执行一次）
+     */
+    @Scheduled(fixedDelayString = "${blog.search.suggest.refresh-interval-ms:60000}")
+    public void refresh() {
+        int changed = 0;
+
+        if (System.currentTimeMillis() - lastResync >= resyncIntervalMs) {
+            titlesChanged.set(true);
+            tagsChanged.set(true);
+            lastResync = System.currentTimeMillis();
+        }
+
+        // 先清除标记再加载，加载期间的新变更留到下一次刷新
+        if (titlesChanged.getAndSet(false)) {
+            try {
+                Map<String, Candidate> titles = new HashMap<>();
+                for (ArticleSummaryVO article : articleMapper.findTitlesForSuggest()) {
+                    add(titles, article.getTitle(), 1L + (article.getViewCount() == null ? 0 : article.getViewCount()));
+                }
+                changed += apply(SOURCE_TITLE, titles);
+            } catch (Exception e) {
+                titlesChanged.set(true);
+                log.error("加载搜索建议的文章标题失败", e);
+            }
+        }
+
+        if (tagsChanged.getAndSet(false)) {
+            try {
+                Map<String, Candidate> tags = new HashMap<>();
+                for (Tag tag : tagMapper.findAll()) {
+                    add(tags, tag.getName(), 1L + (tag.getArticleCount() == null ? 0 : tag.getArticleCount()));
+                }
+                changed += apply(SOURCE_TAG, tags);
+            } catch (Exception e) {
+                tagsChanged.set(true);
+                log.error("加载搜索建议的标签失败", e);
+            }
+        }
+
+        Map<String, Candidate> keywords = new HashMap<>();
+        for (HotKeyword hotKeyword : hotKeywordTracker.topScores(keywordLimit)) {
+            add(keywords, hotKeyword.getKeyword(), Math.round(hotKeyword.getScore()));
+        }
+        changed += apply(SOURCE_KEYWORD, keywords);
+
+        if (changed > 0) {
+            log.debug("搜索建议词典已更新: 变更词条={}, 词条总数={}", changed, trie.size());
+        }
+    }
+
+    private static void add(Map<String, Candidate> target, String text, long weight) {
+        String key = SuggestTrie.normalize(text);
+        if (key.isEmpty() || weight <= 0) {
+            return;
+        }
+        target.merge(key, new Candidate(text.trim(), weight),
+                (a, b) -> new Candidate(a.text(), a.weight() + b.weight()));
+    }
+
+    /**
+     * 用某个来源的最新数据替换旧数据，返回发生变化的词条数
+     */
+    private synchronized int apply(int source, Map<String, Candidate> fresh) {
+        Map<String, Candidate> current = sources[source];
+
+        Set<String> affected = new HashSet<>();
+        for (String key : current.keySet()) {
+            if (!fresh.containsKey(key)) {
+                affected.add(key);
+            }
+        }
+        for (Map.Entry<String, Candidate> entry : fresh.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                affected.add(entry.getKey());
+            }
+        }
+        sources[source] = fresh;
+
+        for (String key : affected) {
+            String text = null;
+            long weight = 0;
+            for (Map<String, Candidate> candidates : sources) {
+                Candidate candidate = candidates.get(key);
+                if (candidate != null) {
+                    if (text == null) {
+                        text = candidate.text();
+                    }
+                    weight += candidate.weight();
+                }
+            }
+
+            if (text == null) {
+                trie.remove(key);
+            } else {
+                trie.put(text, weight);
+            }
+        }
+        return affected.size();
+    }
+}
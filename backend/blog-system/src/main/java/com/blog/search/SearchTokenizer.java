@@ -0,0 +1,129 @@
+package com.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 搜索分词器
+ * 1. 中日韩文字：按二元组（bigram）切分，如 "搜索引擎" -> "搜索", "索引", "引擎"；
+ *    建索引时另外输出每个单字，单字查询（如 "锁"）也能命中包含该字的词；查询时多个字只用二元组，只有单个字时用单字
+ * 2. 拉丁字母和数字：按单词切分并转小写，如 "Spring Boot3" -> "spring", "boot3"；
+ *    单词末尾的 + 和 # 保留为单词的一部分，如 "C++"、"C#" -> "c++"、"c#"，不会都变成 "c"
+ * 3. 其它字符（空格、标点等）作为分隔符
+ * 建索引和解析查询的切分规则一致，查询的词项都是建索引时会输出的词项
+ */
+public final class SearchTokenizer {
+
+    /**
+     * 超长的"单词"（如base64、长链接）不参与索引
+     */
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 建索引时的分词
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 解析查询时的分词
+     */
+    public static List<String> tokenizeQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<String> tokenize(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjk, tokens, unigrams);
+                word.appendCodePoint(codePoint);
+            } else {
+                if (word.length() > 0 && isWordSuffix(codePoint)) {
+                    int end = suffixEnd(text, i - 1);
+                    if (end == text.length() || !continuesWord(text.codePointAt(end))) {
+                        word.append(text, i - 1, end);
+                        i = end;
+                        continue;
+                    }
+                }
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens, unigrams);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens, unigrams);
+
+        return tokens;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static boolean continuesWord(int codePoint) {
+        return Character.isLetterOrDigit(codePoint) && !isCjk(codePoint);
+    }
+
+    private static boolean isWordSuffix(int codePoint) {
+        return codePoint == '+' || codePoint == '#';
+    }
+
+    /**
+     * 从 start 开始连续的 + 和 # 之后的位置
+     */
+    private static int suffixEnd(String text, int start) {
+        int end = start;
+        while (end < text.length() && isWordSuffix(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0 && word.length() <= MAX_WORD_LENGTH) {
+            tokens.add(word.toString().toLowerCase(Locale.ROOT));
+        }
+        word.setLength(0);
+    }
+
+    private static void flushCjk(StringBuilder cjk, List<String> tokens, boolean unigrams) {
+        if (cjk.length() == 0) {
+            return;
+        }
+
+        int[] codePoints = cjk.codePoints().toArray();
+        for (int j = 0; j < codePoints.length; j++) {
+            if (unigrams || codePoints.length == 1) {
+                tokens.add(new String(codePoints, j, 1));
+            }
+            if (j + 1 < codePoints.length) {
+                tokens.add(new String(codePoints, j, 2));
+            }
+        }
+        cjk.setLength(0);
+    }
+}
@@ -0,0 +1,233 @@
+package com.blog.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 搜索建议前缀树
+ * 1. 每个节点的子节点用有序 char[] + Node[] 存储（二分查找），不为每个节点创建HashMap
+ * 2. 每个节点缓存子树中权重最高的前k个词条，查询只需沿前缀走到对应节点直接取缓存，与词典大小无关
+ * 3. 单子节点且自身不是词条的节点直接复用子节点的缓存数组，标题尾部的长链不额外占用内存
+ * 4. 增删改词条只重算该词条路径上的节点；读操作不加锁，写操作串行并整体替换数组（读到的要么是旧值要么是新值）
+ */
+public class SuggestTrie {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Branches NO_BRANCHES = new Branches(new char[0], new Node[0]);
+
+    /**
+     * 权重高的在前，权重相同时按字典序
+     */
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::key);
+
+    private final int topK;
+
+    private final Node root = new Node();
+
+    /**
+     * 当前所有词条（key为规范化后的词），只在写锁内访问
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private record Entry(String key, String text, long weight) {
+    }
+
+    private record Branches(char[] keys, Node[] nodes) {
+    }
+
+    private static final class Node {
+        volatile Branches branches = NO_BRANCHES;
+        volatile Entry self;
+        volatile Entry[] top = NO_ENTRIES;
+
+        Node child(char c) {
+            Branches b = branches;
+            int i = Arrays.binarySearch(b.keys(), c);
+            return i >= 0 ? b.nodes()[i] : null;
+        }
+    }
+
+    public SuggestTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * 规范化：去掉首尾空白并转小写，匹配时不区分大小写
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 返回以prefix开头、权重最高的最多limit个词条（原始大小写）
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return new ArrayList<>();
+        }
+
+        Entry[] top = node.top;
+        int n = Math.min(limit, top.length);
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(top[i].text());
+        }
+        return result;
+    }
+
+    /**
+     * 新增或更新词条权重
+     */
+    public synchronized void put(String text, long weight) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Entry entry = new Entry(key, text.trim(), weight);
+        Entry old = entries.put(key, entry);
+        if (entry.equals(old)) {
+            return;
+        }
+
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = childOrCreate(path[i], key.charAt(i));
+        }
+        path[key.length()].self = entry;
+
+        // 权重没有降低时只需把新词条插入路径上各节点的缓存，否则从下往上重算
+        boolean increased = old == null || weight >= old.weight();
+        for (int i = path.length - 1; i >= 0; i--) {
+            Node node = path[i];
+            node.top = increased && !sharesChildTop(node) ? insertTop(node.top, entry) : computeTop(node);
+        }
+    }
+
+    /**
+     * 删除词条，并清理不再使用的节点
+     */
+    public synchronized void remove(String text) {
+        String key = normalize(text);
+        if (entries.remove(key) == null) {
+            return;
+        }
+
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        path[key.length()].self = null;
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            Node node = path[i];
+            if (i > 0 && node.self == null && node.branches.keys().length == 0) {
+                removeChild(path[i - 1], key.charAt(i - 1));
+            } else {
+                node.top = computeTop(node);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 当前所有词条及权重的副本
+     */
+    public synchronized Map<String, Long> snapshot() {
+        Map<String, Long> copy = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            copy.put(entry.key(), entry.weight());
+        }
+        return copy;
+    }
+
+    private Entry[] insertTop(Entry[] top, Entry entry) {
+        List<Entry> merged = new ArrayList<>(top.length + 1);
+        for (Entry e : top) {
+            if (!e.key().equals(entry.key())) {
+                merged.add(e);
+            }
+        }
+        merged.add(entry);
+        merged.sort(ENTRY_ORDER);
+        return merged.subList(0, Math.min(topK, merged.size())).toArray(NO_ENTRIES);
+    }
+
+    private static boolean sharesChildTop(Node node) {
+        return node.self == null && node.branches.nodes().length == 1;
+    }
+
+    private Entry[] computeTop(Node node) {
+        Node[] children = node.branches.nodes();
+        if (sharesChildTop(node)) {
+            return children[0].top;
+        }
+
+        List<Entry> merged = new ArrayList<>();
+        if (node.self != null) {
+            merged.add(node.self);
+        }
+        for (Node child : children) {
+            merged.addAll(Arrays.asList(child.top));
+        }
+        merged.sort(ENTRY_ORDER);
+        return merged.subList(0, Math.min(topK, merged.size())).toArray(NO_ENTRIES);
+    }
+
+    private static Node childOrCreate(Node parent, char c) {
+        Branches b = parent.branches;
+        int i = Arrays.binarySearch(b.keys(), c);
+        if (i >= 0) {
+            return b.nodes()[i];
+        }
+
+        int insertAt = -i - 1;
+        char[] keys = new char[b.keys().length + 1];
+        Node[] nodes = new Node[keys.length];
+        System.arraycopy(b.keys(), 0, keys, 0, insertAt);
+        System.arraycopy(b.nodes(), 0, nodes, 0, insertAt);
+        keys[insertAt] = c;
+        nodes[insertAt] = new Node();
+        System.arraycopy(b.keys(), insertAt, keys, insertAt + 1, b.keys().length - insertAt);
+        System.arraycopy(b.nodes(), insertAt, nodes, insertAt + 1, b.nodes().length - insertAt);
+        parent.branches = new Branches(keys, nodes);
+        return nodes[insertAt];
+    }
+
+    private static void removeChild(Node parent, char c) {
+        Branches b = parent.branches;
+        int i = Arrays.binarySearch(b.keys(), c);
+        if (i < 0) {
+            return;
+        }
+
+        char[] keys = new char[b.keys().length - 1];
+        Node[] nodes = new Node[keys.length];
+        System.arraycopy(b.keys(), 0, keys, 0, i);
+        System.arraycopy(b.nodes(), 0, nodes, 0, i);
+        System.arraycopy(b.keys(), i + 1, keys, i, keys.length - i);
+        System.arraycopy(b.nodes(), i + 1, nodes, i, nodes.length - i);
+        parent.branches = keys.length == 0 ? NO_BRANCHES : new Branches(keys, nodes);
+    }
+}
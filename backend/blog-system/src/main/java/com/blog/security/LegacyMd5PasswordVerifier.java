@@ -0,0 +1,38 @@
+package com.blog.security;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 旧版密码格式：不加盐的 MD5 十六进制串（32位）
+ * 只用于校验存量密码，校验通过后总是需要重新计算，不再生成这种格式
+ */
+public class LegacyMd5PasswordVerifier implements PasswordVerifier {
+
+    @Override
+    public boolean supports(String stored) {
+        if (stored == null || stored.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < stored.length(); i++) {
+            if (Character.digit(stored.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean matches(String password, String stored) {
+        String actual = DigestUtils.md5DigestAsHex(password.getBytes(StandardCharsets.UTF_8));
+        return MessageDigest.isEqual(actual.getBytes(StandardCharsets.US_ASCII),
+                stored.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return true;
+    }
+}
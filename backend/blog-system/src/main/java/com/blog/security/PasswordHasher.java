@@ -0,0 +1,12 @@
+package com.blog.security;
+
+/**
+ * 可以生成新密码存储值的哈希算法
+ */
+public interface PasswordHasher extends PasswordVerifier {
+
+    /**
+     * 计算密码的存储值
+     */
+    String hash(String password);
+}
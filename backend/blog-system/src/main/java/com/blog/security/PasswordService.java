@@ -0,0 +1,150 @@
+package com.blog.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希与校验
+ * 1. 新密码使用 PBKDF2（每个用户独立的盐，迭代次数随哈希保存），存量 MD5 密码在登录成功时重新计算
+ * 2. 哈希计算在专用的固定大小线程池中执行，等待队列有上限：登录高峰时超出队列的请求立即失败，
+ *    不会让 Tomcat 请求线程排队等待 CPU；等待超时的任务会被取消
+ */
+@Slf4j
+@Component
+public class PasswordService {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${blog.password.pbkdf2-iterations:210000}")
+    private int iterations;
+
+    /**
+     * 哈希线程数，0 表示使用CPU核数
+     */
+    @Value("${blog.password.threads:0}")
+    private int threads;
+
+    @Value("${blog.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${blog.password.timeout-ms:3000}")
+    private long timeoutMs;
+
+    private PasswordHasher current;
+
+    private List<PasswordVerifier> verifiers;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 校验结果；rehash 不为null时表示密码正确但存储格式已过时，应保存这个新哈希
+     */
+    public record Verification(boolean matched, String rehash) {
+    }
+
+    @PostConstruct
+    public void init() {
+        current = new Pbkdf2PasswordHasher(iterations);
+        verifiers = List.of(current, new LegacyMd5PasswordVerifier());
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHash");
+    }
+
+    /**
+     * 计算新密码的存储值
+     */
+    public String hash(String password) {
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("密码不能为空");
+        }
+        return execute(() -> current.hash(password));
+    }
+
+    /**
+     * 校验密码，存储格式过时时顺带计算新哈希
+     */
+    public Verification verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return new Verification(false, null);
+        }
+
+        PasswordVerifier verifier = verifierFor(stored);
+        if (verifier == null) {
+            return new Verification(false, null);
+        }
+
+        return execute(() -> {
+            if (!verifier.matches(password, stored)) {
+                return new Verification(false, null);
+            }
+            String rehash = verifier.needsRehash(stored) ? current.hash(password) : null;
+            return new Verification(true, rehash);
+        });
+    }
+
+    private PasswordVerifier verifierFor(String stored) {
+        for (PasswordVerifier verifier : verifiers) {
+            if (verifier.supports(stored)) {
+                return verifier;
+            }
+        }
+        return null;
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("密码校验队列已满（{}），拒绝请求", queueCapacity);
+            throw new RuntimeException("登录请求过多，请稍后重试");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("登录请求过多，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("密码校验被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("密码校验失败", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package com.blog.security;
+
+/**
+ * 密码校验
+ * 存储的哈希值自带算法标识和参数，校验时按存储格式选择对应的实现；只用于校验存量格式的实现不必能生成哈希
+ */
+public interface PasswordVerifier {
+
+    /**
+     * 是否能识别该存储格式
+     */
+    boolean supports(String stored);
+
+    /**
+     * 校验密码是否与存储值一致
+     */
+    boolean matches(String password, String stored);
+
+    /**
+     * 存储值的算法或参数是否已过时，需要在下次登录成功时重新计算
+     */
+    boolean needsRehash(String stored);
+}
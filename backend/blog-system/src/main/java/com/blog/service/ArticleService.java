@@ -1,6 +1,7 @@
 package com.blog.service;
 
 import com.blog.entity.Article;
+import com.blog.entity.vo.ArticleSummaryVO;
 import java.util.List;
 import java.util.Map;
 
@@ -9,7 +10,12 @@ public interface ArticleService {
     /**
      * 获取文章列表
      */
-    List<Article> getArticles(int page, int size);
+    List<ArticleSummaryVO> getArticles(int page, int size);
+
+    /**
+     * 获取文章列表（游标分页，cursor为空表示第一页）
+     */
+    Map<String, Object> getArticlesByCursor(String cursor, int size);
 
     /**
      * 获取文章详情
@@ -41,22 +47,22 @@ public interface ArticleService {
     /**
      * 获取热门文章（按浏览量排序）
      */
-    List<Article> getHotArticles(int limit);
+    List<ArticleSummaryVO> getHotArticles(int limit);
 
     /**
      * 获取最新文章（按创建时间排序）
      */
-    List<Article> getLatestArticles(int limit);
+    List<ArticleSummaryVO> getLatestArticles(int limit);
 
     /**
      * 根据分类ID获取文章
      */
-    List<Article> getArticlesByCategory(Integer categoryId, int page, int size);
+    List<ArticleSummaryVO> getArticlesByCategory(Integer categoryId, int page, int size);
 
     /**
      * 根据标签名称获取文章
      */
-    List<Article> getArticlesByTag(String tagName, int page, int size);
+    List<ArticleSummaryVO> getArticlesByTag(String tagName, int page, int size);
 
     /**
      * 获取文章总数
@@ -91,12 +97,17 @@ public interface ArticleService {
     /**
      * 获取用户的草稿列表
      */
-    List<Article> getUserDrafts(Integer userId, int page, int size);
+    List<ArticleSummaryVO> getUserDrafts(Integer userId, int page, int size);
 
     /**
      * 获取用户的发布文章列表
      */
-    List<Article> getUserPublishedArticles(Integer userId, int page, int size);
+    List<ArticleSummaryVO> getUserPublishedArticles(Integer userId, int page, int size);
+
+    /**
+     * 获取用户的发布文章列表（游标分页）
+     */
+    Map<String, Object> getUserPublishedArticlesByCursor(Integer userId, String cursor, int size);
 
     /**
      * 根据ID获取文章（不限制状态）
@@ -41,6 +41,11 @@ public interface CategoryService {
      */
     Map<String, Object> getCategoryArticles(Integer categoryId, int page, int size, String sortType);
 
+    /**
+     * 获取分类下的文章（游标分页，cursor为空表示第一页）
+     */
+    Map<String, Object> getCategoryArticlesByCursor(Integer categoryId, String cursor, int size, String sortType);
+
     /**
      * 获取热门分类（按文章数量排序）
      */
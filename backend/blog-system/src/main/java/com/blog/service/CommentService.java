@@ -3,6 +3,7 @@ package com.blog.service;
 import com.blog.entity.Comment;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CommentService {
     
@@ -21,6 +22,21 @@ public interface CommentService {
      */
     List<Comment> getCommentTreeByArticleId(Integer articleId);
     
+    /**
+     * 按讨论串分页获取文章评论（游标分页）：每个顶级评论只带前replies条回复和回复总数
+     */
+    Map<String, Object> getCommentThreads(Integer articleId, String cursor, int size, int replies);
+    
+    /**
+     * 展开一个讨论串的回复（游标分页）
+     */
+    Map<String, Object> getThreadReplies(Integer rootId, String cursor, int size);
+    
+    /**
+     * 标记当前用户点赞过的评论（包括子评论），整页只做一次查询
+     */
+    void markLikedByMe(List<Comment> comments, Integer userId);
+    
     /**
      * 创建评论
      */
@@ -51,6 +67,11 @@ public interface CommentService {
      */
     List<Comment> getUserRecentComments(Integer userId, int limit);
     
+    /**
+     * 获取文章评论统计（评论数、回复层级分布、独立评论人数、按小时分布、评论最多的用户）
+     */
+    Map<String, Object> getCommentStatistics(Integer articleId);
+    
     /**
      * 检查用户是否有权限修改评论
      */
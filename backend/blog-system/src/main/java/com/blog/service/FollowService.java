@@ -3,6 +3,7 @@ package com.blog.service;
 import com.blog.entity.vo.FollowVO;
 import com.blog.entity.vo.FollowCountVO;
 import java.util.List;
+import java.util.Map;
 
 public interface FollowService {
     
@@ -31,6 +32,16 @@ public interface FollowService {
      */
     List<FollowVO> getFollowerList(Integer currentUserId, Integer page, Integer size);
     
+    /**
+     * 游标分页获取关注列表（我关注的人）
+     */
+    Map<String, Object> getFollowingListByCursor(Integer currentUserId, String cursor, int size);
+    
+    /**
+     * 游标分页获取粉丝列表（关注我的人）
+     */
+    Map<String, Object> getFollowerListByCursor(Integer currentUserId, String cursor, int size);
+    
     /**
      * 获取关注数量统计
      */
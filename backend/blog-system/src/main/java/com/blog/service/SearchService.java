@@ -2,6 +2,7 @@ package com.blog.service;
 
 import com.blog.entity.Article;
 import com.blog.entity.SearchResult;
+import com.blog.entity.Tag;
 import com.blog.entity.User;
 import java.util.List;
 
@@ -22,6 +23,11 @@ public interface SearchService {
      */
     SearchResult<User> searchUsers(String keyword, Integer page, Integer size);
     
+    /**
+     * 搜索标签（名称、描述）
+     */
+    SearchResult<Tag> searchTags(String keyword, Integer page, Integer size);
+    
     /**
      * 高级搜索文章（多条件）
      */
@@ -39,4 +45,9 @@ public interface SearchService {
      * 保存搜索记录（用于统计）
      */
     void saveSearchRecord(String keyword, Integer userId);
+    
+    /**
+     * 获取搜索建议（自动完成，按热度排序）
+     */
+    List<String> getSearchSuggestions(String prefix, int limit);
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.blog.entity.ChangePasswordRequest;
 import com.blog.entity.User;
 import com.blog.entity.vo.UserProfileVO;
 
+import java.util.List;
+
 public interface UserService {
 
     /**
@@ -55,4 +57,9 @@ public interface UserService {
      * 更新最后活动时间（用于判断在线状态）
      */
     void updateLastActive(Integer userId);
+
+    /**
+     * 获取在线用户列表（按最后活动时间倒序）
+     */
+    List<User> getOnlineUsers(int limit);
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.blog.service.impl;
 
 import com.blog.dao.ArticleMapper;
-import com.blog.entity.Article;
 import com.blog.entity.vo.ArchiveVO;
 import com.blog.entity.vo.ArticleArchiveVO;
 import com.blog.service.ArchiveService;
@@ -118,22 +117,13 @@ public class ArchiveServiceImpl implements ArchiveService {
     public List<ArticleArchiveVO> getArticlesByYearMonth(Integer year, Integer month) {
         List<ArticleArchiveVO> articles = articleMapper.getArticlesByYearMonth(year, month);
         
-        // 为每篇文章补充完整信息
+        // 阅读量、点赞数、作者等已在列表查询中一并取出，这里只格式化时间
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM-dd");
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
         for (ArticleArchiveVO article : articles) {
-            Article fullArticle = articleMapper.findById(article.getId());
-            if (fullArticle != null) {
-                article.setViewCount(fullArticle.getViewCount());
-                article.setLikeCount(fullArticle.getLikeCount());
-                article.setCommentCount(fullArticle.getCommentCount());
-                article.setAuthorName(fullArticle.getAuthorName());
-                
-                // 格式化时间
-                if (article.getCreateTime() != null) {
-                    DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM-dd");
-                    DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-                    article.setFormatDate(article.getCreateTime().format(dateFormatter));
-                    article.setFormatTime(article.getCreateTime().format(timeFormatter));
-                }
+            if (article.getCreateTime() != null) {
+                article.setFormatDate(article.getCreateTime().format(dateFormatter));
+                article.setFormatTime(article.getCreateTime().format(timeFormatter));
             }
         }
         
@@ -1,10 +1,17 @@
 package com.blog.service.impl;
 
+import com.blog.cache.ArticleDetailCache;
+import com.blog.cache.ArticleViewCounter;
+import com.blog.cache.UserProfileStats;
+import com.blog.common.ArticleCursor;
 import com.blog.dao.ArticleMapper;
 import com.blog.dao.ArticleTagMapper;
 import com.blog.dao.TagMapper;
 import com.blog.entity.Article;
 import com.blog.entity.Tag;
+import com.blog.entity.vo.ArticleSummaryVO;
+import com.blog.search.ArticleSearchIndex;
+import com.blog.search.SearchSuggester;
 import com.blog.service.ArticleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,8 +19,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,24 +38,47 @@ public class ArticleServiceImpl implements ArticleService {
     @Autowired
     private ArticleTagMapper articleTagMapper;
 
+    @Autowired
+    private ArticleViewCounter articleViewCounter;
+
+    @Autowired
+    private ArticleDetailCache articleDetailCache;
+
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
+    @Autowired
+    private SearchSuggester searchSuggester;
+
+    @Autowired
+    private UserProfileStats userProfileStats;
+
     @Override
-    public List<Article> getArticles(int page, int size) {
+    public List<ArticleSummaryVO> getArticles(int page, int size) {
         int offset = (page - 1) * size;
         return articleMapper.findList(offset, size);
     }
 
     @Override
-    public Article getArticleById(Integer id) {
-        // 先获取文章
-        Article article = articleMapper.findById(id);
+    public Map<String, Object> getArticlesByCursor(String cursor, int size) {
+        ArticleCursor after = ArticleCursor.decode(cursor, ArticleCursor.SORT_TOP);
+        // 多查一条用于判断是否还有下一页
+        List<ArticleSummaryVO> rows = articleMapper.findListAfter(after, size + 1);
+        return ArticleCursor.toPage(rows, size, ArticleCursor.SORT_TOP);
+    }
 
-        // 增加阅读量
-        if (article != null) {
-            articleMapper.incrementViewCount(id);
-            // 重新获取更新后的数据
-            article = articleMapper.findById(id);
+    @Override
+    public Article getArticleById(Integer id) {
+        // 详情走本地缓存，只返回已发布的文章
+        Article article = articleDetailCache.get(id);
+        if (article == null || article.getStatus() == null || article.getStatus() != 1) {
+            return null;
         }
 
+        // 阅读量先记在内存计数器中，由计数器定时批量写回
+        articleViewCounter.increment(id);
+        article.setViewCount(articleViewCounter.getViewCount(id, article.getViewCount()));
+
         return article;
     }
 
@@ -57,6 +89,12 @@ public class ArticleServiceImpl implements ArticleService {
         if (result > 0 && article.getId() != null) {
             // 然后处理标签
             processArticleTags(article);
+            articleDetailCache.invalidate(article.getId());
+            articleSearchIndex.onArticleChanged(article.getId());
+            searchSuggester.onArticleChanged();
+            if (article.getStatus() != null && article.getStatus() == 1) {
+                userProfileStats.onArticlePublished(article.getUserId(), 0, 0);
+            }
             return true;
         }
         return false;
@@ -67,7 +105,14 @@ public class ArticleServiceImpl implements ArticleService {
         // 处理标签逻辑
         processArticleTags(article);
 
+        Article before = articleDetailCache.get(article.getId());
         int result = articleMapper.update(article);
+        if (result > 0) {
+            onPublishStateChanged(before, article.getStatus());
+        }
+        articleDetailCache.invalidate(article.getId());
+        articleSearchIndex.onArticleChanged(article.getId());
+        searchSuggester.onArticleChanged();
         return result > 0;
     }
 
@@ -77,33 +122,59 @@ public class ArticleServiceImpl implements ArticleService {
         Article article = new Article();
         article.setId(id);
         article.setStatus(2); // 删除状态
+        Article before = articleDetailCache.get(id);
         int result = articleMapper.update(article);
+        if (result > 0) {
+            onPublishStateChanged(before, article.getStatus());
+        }
+        articleDetailCache.invalidate(id);
+        articleSearchIndex.onArticleChanged(id);
+        searchSuggester.onArticleChanged();
         return result > 0;
     }
 
+    /**
+     * 文章发布状态变化时同步作者的个人主页统计
+     */
+    private void onPublishStateChanged(Article before, Integer newStatus) {
+        if (before == null) {
+            return;
+        }
+        boolean wasPublished = before.getStatus() != null && before.getStatus() == 1;
+        boolean nowPublished = newStatus != null && newStatus == 1;
+        if (wasPublished == nowPublished) {
+            return;
+        }
+        if (nowPublished) {
+            userProfileStats.onArticlePublished(before.getUserId(), before.getLikeCount(), before.getViewCount());
+        } else {
+            userProfileStats.onArticleRemoved(before.getUserId(), before.getLikeCount(), before.getViewCount());
+        }
+    }
+
     @Override
     public void incrementViewCount(Integer id) {
-        articleMapper.incrementViewCount(id);
+        articleViewCounter.increment(id);
     }
 
     @Override
-    public List<Article> getHotArticles(int limit) {
+    public List<ArticleSummaryVO> getHotArticles(int limit) {
         return articleMapper.findHotArticles(limit);
     }
 
     @Override
-    public List<Article> getLatestArticles(int limit) {
+    public List<ArticleSummaryVO> getLatestArticles(int limit) {
         return articleMapper.findLatestArticles(limit);
     }
 
     @Override
-    public List<Article> getArticlesByCategory(Integer categoryId, int page, int size) {
+    public List<ArticleSummaryVO> getArticlesByCategory(Integer categoryId, int page, int size) {
         int offset = (page - 1) * size;
         return articleMapper.findByCategoryId(categoryId, offset, size);
     }
 
     @Override
-    public List<Article> getArticlesByTag(String tagName, int page, int size) {
+    public List<ArticleSummaryVO> getArticlesByTag(String tagName, int page, int size) {
         int offset = (page - 1) * size;
         return articleMapper.findByTagName(tagName, offset, size);
     }
@@ -131,9 +202,9 @@ public class ArticleServiceImpl implements ArticleService {
 
     /**
      * 处理文章标签逻辑
-     * 1. 解析tags字符串（逗号分隔）
+     * 1. 解析tags字符串（逗号分隔，去重）
      * 2. 创建或获取标签
-     * 3. 建立文章-标签关联
+     * 3. 重建文章-标签关联（按标签查询文章统一走 article_tag，tags字段只作为展示用的冗余副本）
      */
     private void processArticleTags(Article article) {
         // 确保文章已保存（有ID）
@@ -142,59 +213,47 @@ public class ArticleServiceImpl implements ArticleService {
             return;
         }
 
-        if (!StringUtils.hasText(article.getTags())) {
-            // 清空文章的标签关联
-            articleTagMapper.deleteByArticleId(article.getId());
-            return;
-        }
-
-        // 解析标签字符串
-        String[] tagNames = article.getTags().split(",");
-        List<Integer> tagIds = new java.util.ArrayList<>();
-
-        for (String tagName : tagNames) {
-            String cleanTagName = tagName.trim();
-            if (cleanTagName.isEmpty()) {
-                continue;
-            }
-
-            // 查找标签是否存在
-            Tag tag = tagMapper.findByName(cleanTagName);
-
-            if (tag == null) {
-                // 创建新标签
-                tag = new Tag();
-                tag.setName(cleanTagName);
-                tag.setSlug(generateSlug(cleanTagName));
-                tag.setColor("#409eff"); // 默认颜色
-                tagMapper.insert(tag);
-                System.out.println("✅ 创建新标签: " + cleanTagName + " (ID: " + tag.getId() + ")");
+        // 旧关联的标签也需要重新统计文章数
+        Set<Integer> affectedTagIds = new LinkedHashSet<>(articleTagMapper.findTagIdsByArticleId(article.getId()));
+        articleTagMapper.deleteByArticleId(article.getId());
+
+        if (StringUtils.hasText(article.getTags())) {
+            // 解析标签字符串
+            Set<String> tagNames = new LinkedHashSet<>();
+            for (String tagName : article.getTags().split(",")) {
+                String cleanTagName = tagName.trim();
+                if (!cleanTagName.isEmpty()) {
+                    tagNames.add(cleanTagName);
+                }
             }
 
-            if (tag.getId() != null) {
-                tagIds.add(tag.getId());
-            }
-        }
+            for (String cleanTagName : tagNames) {
+                // 查找标签是否存在
+                Tag tag = tagMapper.findByName(cleanTagName);
+
+                if (tag == null) {
+                    // 创建新标签
+                    tag = new Tag();
+                    tag.setName(cleanTagName);
+                    tag.setSlug(generateSlug(cleanTagName));
+                    tag.setColor("#409eff"); // 默认颜色
+                    tagMapper.insert(tag);
+                    System.out.println("✅ 创建新标签: " + cleanTagName + " (ID: " + tag.getId() + ")");
+                }
 
-        // 处理文章标签关联
-        if (!tagIds.isEmpty()) {
-            // 先删除旧的关联
-            articleTagMapper.deleteByArticleId(article.getId());
-
-            // 创建新的关联
-            for (Integer tagId : tagIds) {
-                try {
-                    articleTagMapper.insert(article.getId(), tagId);
-                } catch (Exception e) {
-                    // 忽略重复关联
-                    System.out.println("⚠️ 标签关联已存在: articleId=" + article.getId() + ", tagId=" + tagId);
+                if (tag.getId() != null) {
+                    articleTagMapper.insert(article.getId(), tag.getId());
+                    affectedTagIds.add(tag.getId());
                 }
             }
 
-            // 更新标签的文章数量
-            for (Integer tagId : tagIds) {
-                tagMapper.updateArticleCount(tagId);
-            }
+            // 冗余的tags字段保存规范化后的标签名
+            article.setTags(String.join(",", tagNames));
+        }
+
+        // 更新标签的文章数量
+        for (Integer tagId : affectedTagIds) {
+            tagMapper.updateArticleCount(tagId);
         }
     }
 
@@ -223,26 +282,39 @@ public class ArticleServiceImpl implements ArticleService {
         Article article = getArticleById(articleId);
         if (article != null && article.getStatus() == 0) {
             article.setStatus(1);
-            return updateArticle(article);
+            boolean success = updateArticle(article);
+            articleDetailCache.invalidate(articleId);
+            return success;
         }
         return false;
     }
 
     @Override
-    public List<Article> getUserDrafts(Integer userId, int page, int size) {
+    public List<ArticleSummaryVO> getUserDrafts(Integer userId, int page, int size) {
         int offset = (page - 1) * size;
         return articleMapper.findByUserIdAndStatus(userId, 0, offset, size);
     }
 
     @Override
-    public List<Article> getUserPublishedArticles(Integer userId, int page, int size) {
+    public List<ArticleSummaryVO> getUserPublishedArticles(Integer userId, int page, int size) {
         int offset = (page - 1) * size;
         return articleMapper.findByUserIdAndStatus(userId, 1, offset, size);
     }
 
+    @Override
+    public Map<String, Object> getUserPublishedArticlesByCursor(Integer userId, String cursor, int size) {
+        ArticleCursor after = ArticleCursor.decode(cursor, ArticleCursor.SORT_LATEST);
+        List<ArticleSummaryVO> rows = articleMapper.findByUserIdAndStatusAfter(userId, 1, after, size + 1);
+        return ArticleCursor.toPage(rows, size, ArticleCursor.SORT_LATEST);
+    }
+
     @Override
     public Article getArticleByIdWithoutStatus(Integer id) {
-        return articleMapper.findByIdWithoutStatus(id);
+        Article article = articleDetailCache.get(id);
+        if (article != null) {
+            article.setViewCount(articleViewCounter.getViewCount(id, article.getViewCount()));
+        }
+        return article;
     }
 
     @Override
@@ -1,8 +1,9 @@
 package com.blog.service.impl;
 
+import com.blog.common.ArticleCursor;
 import com.blog.dao.ArticleMapper;
 import com.blog.dao.CategoryMapper;
-import com.blog.entity.Article;
+import com.blog.entity.vo.ArticleSummaryVO;
 import com.blog.entity.Category;
 import com.blog.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -150,7 +151,7 @@ public class CategoryServiceImpl implements CategoryService {
         Map<String, Object> result = new HashMap<>();
         
         int offset = (page - 1) * size;
-        List<Article> articles;
+        List<ArticleSummaryVO> articles;
         int total = categoryMapper.countArticlesByCategory(categoryId);
         
         // 根据排序类型获取文章
@@ -175,10 +176,27 @@ public class CategoryServiceImpl implements CategoryService {
         result.put("size", size);
         result.put("totalPages", totalPages);
         result.put("sortType", sortType);
+        // 同时返回游标，前端可以从第二页起改用游标分页
+        result.put("nextCursor", articles.size() == size && page < totalPages
+                ? ArticleCursor.of(articles.get(articles.size() - 1), sortType.toLowerCase()).encode()
+                : null);
         
         return result;
     }
     
+    @Override
+    public Map<String, Object> getCategoryArticlesByCursor(Integer categoryId, String cursor, int size, String sortType) {
+        String sort = sortType.toLowerCase();
+        ArticleCursor after = ArticleCursor.decode(cursor, sort);
+        
+        // 多查一条用于判断是否还有下一页
+        List<ArticleSummaryVO> rows = articleMapper.findByCategoryAfter(categoryId, sort, after, size + 1);
+        
+        Map<String, Object> result = ArticleCursor.toPage(rows, size, sort);
+        result.put("sortType", sortType);
+        return result;
+    }
+    
     @Override
     public List<Map<String, Object>> getHotCategories(int limit) {
         List<Category> categories = getAllCategories();
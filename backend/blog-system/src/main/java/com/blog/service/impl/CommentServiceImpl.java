@@ -1,7 +1,13 @@
 package com.blog.service.impl;
 
+import com.blog.cache.CommentCache;
+import com.blog.cache.UserSnapshotCache;
+import com.blog.cache.UserSnapshotCache.UserSnapshot;
+import com.blog.comment.CommentLikeStore;
+import com.blog.comment.CommentStatistics;
+import com.blog.comment.CommentTree;
+import com.blog.common.CommentCursor;
 import com.blog.dao.CommentMapper;
-import com.blog.dao.UserLikeMapper;
 import com.blog.entity.Comment;
 import com.blog.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +15,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -24,14 +32,27 @@ public class CommentServiceImpl implements CommentService {
     private CommentMapper commentMapper;
     
     @Autowired
-    private UserLikeMapper userLikeMapper;
+    private CommentLikeStore commentLikeStore;
     
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    @Autowired
+    private CommentStatistics commentStatistics;
+    
+    @Autowired
+    private CommentCache commentCache;
+    
+    @Autowired
+    private UserSnapshotCache userSnapshotCache;
+    
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     @Override
     public Comment getCommentById(Integer id) {
         try {
-            return commentMapper.findById(id);
+            Comment comment = commentMapper.findById(id);
+            if (comment != null) {
+                commentLikeStore.applyPending(List.of(comment));
+            }
+            return comment;
         } catch (Exception e) {
             System.err.println("❌ 获取评论异常, ID=" + id + ": " + e.getMessage());
             return null;
@@ -41,8 +62,11 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public List<Comment> getCommentsByArticleId(Integer articleId, int page, int size) {
         try {
-            int offset = (page - 1) * size;
-            return commentMapper.findByArticleId(articleId, offset, size);
+            // 从文章评论缓存中截取一页（只复制这一页）
+            int offset = Math.max(0, (page - 1) * size);
+            List<Comment> pageComments = commentCache.getPage(articleId, offset, size);
+            commentLikeStore.applyPending(pageComments);
+            return pageComments;
         } catch (Exception e) {
             System.err.println("❌ 获取文章评论异常, articleId=" + articleId + ": " + e.getMessage());
             return new ArrayList<>();
@@ -52,16 +76,10 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public List<Comment> getCommentTreeByArticleId(Integer articleId) {
         try {
-            // 获取所有顶级评论
-            List<Comment> topLevelComments = commentMapper.findTopLevelComments(articleId);
-            
-            // 为每个顶级评论获取子评论
-            for (Comment comment : topLevelComments) {
-                List<Comment> childComments = commentMapper.findChildComments(comment.getId());
-                comment.setChildComments(childComments);
-            }
-            
-            return topLevelComments;
+            // 取出文章的全部评论（缓存未命中时一次查询），在内存中组装成任意深度的树
+            List<Comment> comments = commentCache.copyComments(articleId);
+            commentLikeStore.applyPending(comments);
+            return CommentTree.build(comments);
         } catch (Exception e) {
             System.err.println("❌ 获取评论树异常, articleId=" + articleId + ": " + e.getMessage());
             e.printStackTrace();
@@ -70,102 +88,122 @@ public class CommentServiceImpl implements CommentService {
     }
     
     @Override
-    public Comment createComment(Comment comment, String ipAddress, String userAgent) {
-        System.out.println("🚀 开始创建评论...");
-        System.out.println("📝 评论内容: " + comment.getContent());
-        System.out.println("📝 文章ID: " + comment.getArticleId());
-        System.out.println("📝 用户ID: " + comment.getUserId());
-        System.out.println("📝 父评论ID: " + comment.getParentId());
-        System.out.println("📝 回复用户ID: " + comment.getReplyUserId());
+    public Map<String, Object> getCommentThreads(Integer articleId, String cursor, int size, int replies) {
+        CommentCursor after = CommentCursor.decode(cursor);
+        List<Comment> rows = commentMapper.findTopLevelAfter(articleId,
+                after == null ? null : after.getCreateTime(), after == null ? null : after.getId(), size + 1);
+        Map<String, Object> page = CommentCursor.toPage(rows, size);
         
-        try {
-            // 1. 基本验证
-            validateComment(comment);
-            
-            // 2. 设置默认值
-            setDefaultValues(comment);
-            
-            // 3. 验证父评论（如果有）
-            if (comment.getParentId() != null && comment.getParentId() > 0) {
-                validateParentComment(comment.getParentId());
+        @SuppressWarnings("unchecked")
+        List<Comment> threads = (List<Comment>) page.get("comments");
+        if (threads.isEmpty()) {
+            return page;
+        }
+        
+        // 一次查询取出本页所有讨论串的前几条回复及回复总数
+        Map<Integer, Comment> threadMap = new HashMap<>();
+        List<Integer> rootIds = new ArrayList<>(threads.size());
+        for (Comment thread : threads) {
+            thread.setChildComments(new ArrayList<>());
+            thread.setReplyCount(0);
+            threadMap.put(thread.getId(), thread);
+            rootIds.add(thread.getId());
+        }
+        
+        for (Comment reply : commentMapper.findThreadPreviews(rootIds, replies)) {
+            Comment thread = threadMap.get(reply.getRootId());
+            if (thread == null) {
+                continue;
             }
-            
-            // 4. 设置IP和User-Agent
-            comment.setIpAddress(ipAddress);
-            comment.setUserAgent(userAgent);
-            
-            // 5. 设置时间
-            String now = dateFormat.format(new Date());
-            comment.setCreateTime(now);
-            comment.setUpdateTime(now);
-            
-            // 6. 保存评论
-            System.out.println("💾 执行数据库插入...");
-            int result = commentMapper.insert(comment);
-            System.out.println("✅ 插入结果: " + result + " 行受影响");
-            
-            if (result <= 0) {
-                throw new RuntimeException("数据库插入失败，影响行数为0");
+            thread.setReplyCount(reply.getReplyCount());
+            if (thread.getChildCount() < replies) {
+                thread.addChildComment(reply);
             }
-            
-            // 7. 获取插入后的ID
-            System.out.println("🆔 尝试获取插入后的评论ID...");
-            Integer insertedId = comment.getId();
-            
-            if (insertedId == null || insertedId == 0) {
-                System.err.println("⚠️  MyBatis未返回自增ID，尝试其他方式获取...");
-                
-                // 尝试从数据库获取最后插入的ID
-                try {
-                    insertedId = commentMapper.getLastInsertId();
-                    if (insertedId != null && insertedId > 0) {
-                        comment.setId(insertedId);
-                        System.out.println("✅ 通过getLastInsertId获取到ID: " + insertedId);
-                    } else {
-                        // 尝试查询最新的一条评论
-                        Comment latest = findLatestCommentByUserAndArticle(comment.getUserId(), comment.getArticleId());
-                        if (latest != null) {
-                            comment.setId(latest.getId());
-                            System.out.println("✅ 通过查询获取到最新评论ID: " + latest.getId());
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("❌ 获取最后插入ID失败: " + e.getMessage());
-                }
-            } else {
-                System.out.println("✅ MyBatis返回的自增ID: " + insertedId);
+            reply.setReplyCount(null);
+        }
+        commentLikeStore.applyPending(threads);
+        return page;
+    }
+    
+    @Override
+    public Map<String, Object> getThreadReplies(Integer rootId, String cursor, int size) {
+        CommentCursor after = CommentCursor.decode(cursor);
+        List<Comment> rows = commentMapper.findRepliesAfter(rootId,
+                after == null ? null : after.getCreateTime(), after == null ? null : after.getId(), size + 1);
+        commentLikeStore.applyPending(rows);
+        return CommentCursor.toPage(rows, size);
+    }
+    
+    @Override
+    public void markLikedByMe(List<Comment> comments, Integer userId) {
+        if (comments == null || comments.isEmpty()) {
+            return;
+        }
+        
+        List<Comment> all = new ArrayList<>();
+        collectComments(comments, all);
+        
+        Set<Integer> liked = new HashSet<>();
+        if (userId != null) {
+            List<Integer> ids = new ArrayList<>(all.size());
+            for (Comment comment : all) {
+                ids.add(comment.getId());
             }
-            
-            // 8. 重新查询完整的评论信息
-            Comment savedComment = null;
-            if (comment.getId() != null && comment.getId() > 0) {
-                try {
-                    savedComment = commentMapper.findById(comment.getId());
-                    if (savedComment != null) {
-                        System.out.println("✅ 成功查询到保存的评论");
-                        return savedComment;
-                    }
-                } catch (Exception e) {
-                    System.err.println("❌ 查询保存的评论失败: " + e.getMessage());
-                }
+            liked = commentLikeStore.likedComments(userId, ids);
+        }
+        
+        for (Comment comment : all) {
+            comment.setLikedByMe(liked.contains(comment.getId()));
+        }
+    }
+    
+    private static void collectComments(List<Comment> comments, List<Comment> target) {
+        for (Comment comment : comments) {
+            target.add(comment);
+            if (comment.hasChildren()) {
+                collectComments(comment.getChildComments(), target);
             }
-            
-            // 9. 如果无法查询，至少返回插入的对象
-            System.out.println("⚠️  无法查询到保存的评论，返回原始对象");
-            System.out.println("📊 返回的评论对象: ID=" + comment.getId() + 
-                             ", content=" + comment.getContent());
-            return comment;
-            
-        } catch (RuntimeException e) {
-            System.err.println("❌ 创建评论业务异常: " + e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            System.err.println("❌ 创建评论系统异常: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("创建评论失败: " + e.getMessage());
         }
     }
     
+    @Override
+    public Comment createComment(Comment comment, String ipAddress, String userAgent) {
+        // 1. 基本验证
+        validateComment(comment);
+        
+        // 2. 设置默认值（回复时只读取一次父评论，同时完成校验）
+        setDefaultValues(comment);
+        
+        // 3. 设置IP、User-Agent和时间
+        // 创建时间只在这里取一次：写入数据库、返回给前端、放入评论缓存和游标分页用的都是同一个值
+        comment.setIpAddress(ipAddress);
+        comment.setUserAgent(userAgent);
+        String now = LocalDateTime.now().format(TIME_FORMAT);
+        comment.setCreateTime(now);
+        comment.setUpdateTime(now);
+        
+        // 4. 保存评论，自增ID由 useGeneratedKeys 回填，不再回查
+        int result = commentMapper.insert(comment);
+        if (result <= 0 || comment.getId() == null) {
+            throw new RuntimeException("创建评论失败");
+        }
+        
+        // 5. 用缓存的用户信息补全展示字段，不再回查数据库
+        UserSnapshot author = userSnapshotCache.get(comment.getUserId());
+        if (author != null) {
+            comment.setUsername(author.username());
+            comment.setUserAvatar(author.avatar());
+        }
+        UserSnapshot replyUser = userSnapshotCache.get(comment.getReplyUserId());
+        if (replyUser != null) {
+            comment.setReplyUsername(replyUser.username());
+        }
+        
+        commentCache.onCreated(comment);
+        commentStatistics.onCreated(comment);
+        return comment;
+    }
+    
     @Override
     public boolean updateComment(Comment comment) {
         try {
@@ -186,9 +224,12 @@ public class CommentServiceImpl implements CommentService {
             
             // 3. 只能更新内容，不能修改其他字段
             existingComment.setContent(comment.getContent());
-            existingComment.setUpdateTime(dateFormat.format(new Date()));
+            existingComment.setUpdateTime(LocalDateTime.now().format(TIME_FORMAT));
             
             int result = commentMapper.update(existingComment);
+            if (result > 0) {
+                commentCache.onUpdated(existingComment);
+            }
             return result > 0;
             
         } catch (RuntimeException e) {
@@ -211,6 +252,10 @@ public class CommentServiceImpl implements CommentService {
             
             // 使用软删除
             int result = commentMapper.softDelete(id);
+            if (result > 0) {
+                commentCache.onDeleted(comment);
+                commentStatistics.onDeleted(comment);
+            }
             return result > 0;
             
         } catch (RuntimeException e) {
@@ -226,19 +271,9 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public boolean likeComment(Integer commentId, Integer userId) {
         try {
-            // 检查是否已经点赞
-            if (userLikeMapper.exists(userId, commentId) > 0) {
-                throw new RuntimeException("您已点赞过该评论");
-            }
-            
-            // 插入点赞记录
-            int inserted = userLikeMapper.insert(userId, commentId);
-            if (inserted > 0) {
-                // 更新评论点赞数
-                commentMapper.incrementLikeCount(commentId);
-                return true;
-            }
-            return false;
+            // 内存中判重并累加，由点赞存储定时批量写库
+            commentLikeStore.like(commentId, userId);
+            return true;
         } catch (Exception e) {
             System.err.println("❌ 点赞评论异常: " + e.getMessage());
             throw new RuntimeException("点赞失败: " + e.getMessage());
@@ -248,19 +283,8 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public boolean unlikeComment(Integer commentId, Integer userId) {
         try {
-            // 检查是否已经点赞
-            if (userLikeMapper.exists(userId, commentId) == 0) {
-                throw new RuntimeException("您还未点赞该评论");
-            }
-            
-            // 删除点赞记录
-            int deleted = userLikeMapper.delete(userId, commentId);
-            if (deleted > 0) {
-                // 更新评论点赞数
-                commentMapper.decrementLikeCount(commentId);
-                return true;
-            }
-            return false;
+            commentLikeStore.unlike(commentId, userId);
+            return true;
         } catch (Exception e) {
             System.err.println("❌ 取消点赞异常: " + e.getMessage());
             throw new RuntimeException("取消点赞失败: " + e.getMessage());
@@ -321,23 +345,31 @@ public class CommentServiceImpl implements CommentService {
     }
     
     /**
-     * 设置默认值
+     * 设置默认值；回复时读取一次父评论，校验后补全回复用户和所属讨论串
      */
     private void setDefaultValues(Comment comment) {
         if (comment.getParentId() == null) {
             comment.setParentId(0); // 根评论
         }
         
-        if (comment.getReplyUserId() == null && comment.getParentId() > 0) {
-            // 如果是子评论，尝试从父评论获取回复用户ID
-            try {
-                Comment parent = commentMapper.findById(comment.getParentId());
-                if (parent != null) {
-                    comment.setReplyUserId(parent.getUserId());
-                }
-            } catch (Exception e) {
-                System.err.println("⚠️  无法获取父评论信息: " + e.getMessage());
+        comment.setRootId(0);
+        if (comment.getParentId() > 0) {
+            Comment parent = commentMapper.findBriefById(comment.getParentId());
+            if (parent == null) {
+                throw new RuntimeException("父评论不存在");
             }
+            if (parent.getStatus() == null || parent.getStatus() != 1) {
+                throw new RuntimeException("父评论已被删除");
+            }
+            if (!parent.getArticleId().equals(comment.getArticleId())) {
+                throw new RuntimeException("父评论不属于该文章");
+            }
+            
+            if (comment.getReplyUserId() == null) {
+                comment.setReplyUserId(parent.getUserId());
+            }
+            boolean parentIsRoot = parent.getRootId() == null || parent.getRootId() == 0;
+            comment.setRootId(parentIsRoot ? parent.getId() : parent.getRootId());
         }
         
         if (comment.getLikeCount() == null) {
@@ -349,110 +381,35 @@ public class CommentServiceImpl implements CommentService {
         }
     }
     
-    /**
-     * 验证父评论
-     */
-    private void validateParentComment(Integer parentId) {
-        try {
-            if (parentId != null && parentId > 0) {
-                Comment parentComment = commentMapper.findById(parentId);
-                if (parentComment == null) {
-                    throw new RuntimeException("父评论不存在");
-                }
-                if (parentComment.getStatus() != 1) {
-                    throw new RuntimeException("父评论已被删除");
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("验证父评论失败: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 查询用户对某篇文章的最新评论
-     */
-    private Comment findLatestCommentByUserAndArticle(Integer userId, Integer articleId) {
-        try {
-            // 查询用户的最新评论（限制1条）
-            List<Comment> recentComments = commentMapper.findRecentByUserId(userId, 1);
-            if (recentComments != null && !recentComments.isEmpty()) {
-                Comment latest = recentComments.get(0);
-                if (latest.getArticleId().equals(articleId)) {
-                    return latest;
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            System.err.println("❌ 查询最新评论失败: " + e.getMessage());
-            return null;
-        }
-    }
-    
     /**
      * 获取评论统计信息
      */
+    @Override
     public Map<String, Object> getCommentStatistics(Integer articleId) {
-        Map<String, Object> stats = new HashMap<>();
-        
         try {
-            int totalComments = commentMapper.countByArticleId(articleId);
-            stats.put("total", totalComments);
-            stats.put("articleId", articleId);
+            return commentStatistics.getStatistics(articleId);
         } catch (Exception e) {
             System.err.println("❌ 获取评论统计异常: " + e.getMessage());
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("articleId", articleId);
             stats.put("total", 0);
             stats.put("error", e.getMessage());
+            return stats;
         }
-        
-        return stats;
     }
     
     /**
      * 构建完整评论树（支持多层嵌套）
      */
     public List<Comment> buildFullCommentTree(List<Comment> comments) {
-        Map<Integer, Comment> commentMap = new HashMap<>();
-        List<Comment> rootComments = new ArrayList<>();
-        
-        try {
-            // 第一次遍历：建立ID到Comment的映射
-            for (Comment comment : comments) {
-                comment.setChildComments(new ArrayList<>());
-                commentMap.put(comment.getId(), comment);
-            }
-            
-            // 第二次遍历：建立父子关系
-            for (Comment comment : comments) {
-                if (comment.getParentId() == 0 || comment.getParentId() == null) {
-                    rootComments.add(comment);
-                } else {
-                    Comment parent = commentMap.get(comment.getParentId());
-                    if (parent != null) {
-                        parent.addChildComment(comment);
-                    }
-                }
-            }
-            
-            return rootComments;
-        } catch (Exception e) {
-            System.err.println("❌ 构建评论树异常: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return CommentTree.build(comments);
     }
     
     /**
      * 获取文章的所有评论（包括子评论）
      */
     public List<Comment> getAllCommentsByArticleId(Integer articleId) {
-        try {
-            // 先获取平铺的所有评论
-            List<Comment> allComments = commentMapper.findByArticleId(articleId, 0, 1000);
-            // 构建评论树
-            return buildFullCommentTree(allComments);
-        } catch (Exception e) {
-            System.err.println("❌ 获取文章所有评论异常: " + e.getMessage());
-            return new ArrayList<>();
-        }
+        return getCommentTreeByArticleId(articleId);
     }
     
     /**
@@ -578,7 +535,7 @@ public class CommentServiceImpl implements CommentService {
             }
             
             comment.setLikeCount(likeCount);
-            comment.setUpdateTime(dateFormat.format(new Date()));
+            comment.setUpdateTime(LocalDateTime.now().format(TIME_FORMAT));
             int result = commentMapper.update(comment);
             return result > 0;
         } catch (Exception e) {
@@ -1,5 +1,8 @@
 package com.blog.service.impl;
 
+import com.blog.cache.FollowCountCache;
+import com.blog.cache.FollowGraphCache;
+import com.blog.common.FollowCursor;
 import com.blog.dao.FollowMapper;
 import com.blog.dao.UserMapper;
 import com.blog.entity.Follow;
@@ -10,7 +13,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -22,6 +28,12 @@ public class FollowServiceImpl implements FollowService {
     @Autowired
     private UserMapper userMapper;
     
+    @Autowired
+    private FollowCountCache followCountCache;
+    
+    @Autowired
+    private FollowGraphCache followGraphCache;
+    
     @Override
     public boolean follow(Integer followerId, Integer followingId) {
         try {
@@ -46,9 +58,14 @@ public class FollowServiceImpl implements FollowService {
                     // 重新关注（之前取消过）
                     int result = followMapper.reFollow(followerId, followingId);
                     if (result > 0) {
+                        userMapper.addFollowCounts(followerId, followingId, 1);
+                        followCountCache.onFollowChanged(followerId, followingId, 1);
+                        followGraphCache.onFollowChanged(followerId, followingId, true);
                         System.out.println("✅ 重新关注成功");
                         return true;
                     }
+                    // 并发请求已经恢复了这条关注记录
+                    throw new RuntimeException("已经关注该用户");
                 }
             }
             
@@ -60,6 +77,9 @@ public class FollowServiceImpl implements FollowService {
             
             int result = followMapper.insert(follow);
             if (result > 0) {
+                userMapper.addFollowCounts(followerId, followingId, 1);
+                followCountCache.onFollowChanged(followerId, followingId, 1);
+                followGraphCache.onFollowChanged(followerId, followingId, true);
                 System.out.println("✅ 关注成功");
                 return true;
             }
@@ -99,6 +119,9 @@ public class FollowServiceImpl implements FollowService {
             // 3. 软删除（修改状态）
             int result = followMapper.cancelFollow(followerId, followingId);
             if (result > 0) {
+                userMapper.addFollowCounts(followerId, followingId, -1);
+                followCountCache.onFollowChanged(followerId, followingId, -1);
+                followGraphCache.onFollowChanged(followerId, followingId, false);
                 System.out.println("✅ 取消关注成功");
                 return true;
             }
@@ -133,7 +156,8 @@ public class FollowServiceImpl implements FollowService {
             int offset = (page - 1) * size;
             
             // 查询关注列表
-            List<FollowVO> followingList = followMapper.selectFollowingList(currentUserId, currentUserId, offset, size);
+            List<FollowVO> followingList = followMapper.selectFollowingList(currentUserId, offset, size);
+            markFollowedBack(currentUserId, followingList);
             
             System.out.println("📋 获取关注列表成功 - 用户: " + currentUserId + 
                              ", 数量: " + followingList.size());
@@ -154,7 +178,8 @@ public class FollowServiceImpl implements FollowService {
             int offset = (page - 1) * size;
             
             // 查询粉丝列表
-            List<FollowVO> followerList = followMapper.selectFollowerList(currentUserId, currentUserId, offset, size);
+            List<FollowVO> followerList = followMapper.selectFollowerList(currentUserId, offset, size);
+            markFollowingBack(currentUserId, followerList);
             
             System.out.println("📋 获取粉丝列表成功 - 用户: " + currentUserId + 
                              ", 数量: " + followerList.size());
@@ -168,13 +193,65 @@ public class FollowServiceImpl implements FollowService {
         }
     }
     
+    @Override
+    public Map<String, Object> getFollowingListByCursor(Integer currentUserId, String cursor, int size) {
+        FollowCursor after = FollowCursor.decode(cursor);
+        // 多查一条用于判断是否还有下一页
+        List<FollowVO> rows = followMapper.selectFollowingAfter(currentUserId, after, size + 1);
+        Map<String, Object> page = FollowCursor.toPage(rows, size);
+        
+        @SuppressWarnings("unchecked")
+        List<FollowVO> followingList = (List<FollowVO>) page.get("users");
+        markFollowedBack(currentUserId, followingList);
+        return page;
+    }
+    
+    @Override
+    public Map<String, Object> getFollowerListByCursor(Integer currentUserId, String cursor, int size) {
+        FollowCursor after = FollowCursor.decode(cursor);
+        List<FollowVO> rows = followMapper.selectFollowerAfter(currentUserId, after, size + 1);
+        Map<String, Object> page = FollowCursor.toPage(rows, size);
+        
+        @SuppressWarnings("unchecked")
+        List<FollowVO> followerList = (List<FollowVO>) page.get("users");
+        markFollowingBack(currentUserId, followerList);
+        return page;
+    }
+    
+    /**
+     * 关注列表：我都关注了，再一次批量判断对方是否也关注我
+     */
+    private void markFollowedBack(Integer currentUserId, List<FollowVO> followingList) {
+        Set<Integer> followers = followGraphCache.followersAmong(currentUserId, userIdsOf(followingList));
+        for (FollowVO vo : followingList) {
+            vo.setIsFollowing(true);
+            vo.setIsFollowed(followers.contains(vo.getUserId()));
+        }
+    }
+    
+    /**
+     * 粉丝列表：对方都关注了我，再一次批量判断我是否回关
+     */
+    private void markFollowingBack(Integer currentUserId, List<FollowVO> followerList) {
+        Set<Integer> following = followGraphCache.followingAmong(currentUserId, userIdsOf(followerList));
+        for (FollowVO vo : followerList) {
+            vo.setIsFollowing(following.contains(vo.getUserId()));
+            vo.setIsFollowed(true);
+        }
+    }
+    
+    private static List<Integer> userIdsOf(List<FollowVO> list) {
+        List<Integer> ids = new ArrayList<>(list.size());
+        for (FollowVO vo : list) {
+            ids.add(vo.getUserId());
+        }
+        return ids;
+    }
+    
     @Override
     public FollowCountVO getFollowCount(Integer userId) {
         try {
-            FollowCountVO countVO = new FollowCountVO();
-            countVO.setFollowingCount(getFollowingCount(userId));
-            countVO.setFollowerCount(getFollowerCount(userId));
-            return countVO;
+            return followCountCache.get(userId);
         } catch (Exception e) {
             System.err.println("❌ 获取关注数量异常: " + e.getMessage());
             return new FollowCountVO(); // 返回空对象而不是null
@@ -184,7 +261,7 @@ public class FollowServiceImpl implements FollowService {
     @Override
     public int getFollowingCount(Integer userId) {
         try {
-            return followMapper.countFollowing(userId);
+            return followCountCache.get(userId).getFollowingCount();
         } catch (Exception e) {
             System.err.println("❌ 获取关注数量异常: " + e.getMessage());
             return 0;
@@ -194,7 +271,7 @@ public class FollowServiceImpl implements FollowService {
     @Override
     public int getFollowerCount(Integer userId) {
         try {
-            return followMapper.countFollowers(userId);
+            return followCountCache.get(userId).getFollowerCount();
         } catch (Exception e) {
             System.err.println("❌ 获取粉丝数量异常: " + e.getMessage());
             return 0;
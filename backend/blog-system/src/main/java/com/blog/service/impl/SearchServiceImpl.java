@@ -2,22 +2,35 @@ package com.blog.service.impl;
 
 import com.blog.dao.ArticleMapper;
 import com.blog.dao.UserMapper;
-import com.blog.dao.SearchRecordMapper;  // 新增
 import com.blog.dao.TagMapper;  // 新增
 import com.blog.entity.Article;
-import com.blog.entity.SearchRecord;
 import com.blog.entity.SearchResult;
 import com.blog.entity.User;
 import com.blog.entity.Tag;  // 新增
+import com.blog.search.ArticleSearchIndex;
+import com.blog.search.HotKeywordTracker;
+import com.blog.search.SearchRecordBuffer;
+import com.blog.search.SearchSuggester;
 import com.blog.service.SearchService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class SearchServiceImpl implements SearchService {
     
@@ -31,7 +44,25 @@ public class SearchServiceImpl implements SearchService {
     private TagMapper tagMapper;  // 新增
     
     @Autowired
-    private SearchRecordMapper searchRecordMapper;  // 新增
+    private ArticleSearchIndex articleSearchIndex;
+    
+    @Autowired
+    private SearchSuggester searchSuggester;
+    
+    @Autowired
+    private SearchRecordBuffer searchRecordBuffer;
+    
+    @Autowired
+    private HotKeywordTracker hotKeywordTracker;
+    
+    @Value("${blog.search.full-search-timeout-ms:800}")
+    private long fullSearchTimeoutMs;
+    
+    /**
+     * 子搜索使用虚拟线程执行，阻塞在数据库IO上不占用平台线程
+     * 超时取消时中断执行线程，虚拟线程阻塞在 socket 读上会被唤醒，查询不会在后台继续占用连接
+     */
+    private final ExecutorService searchExecutor = Executors.newVirtualThreadPerTaskExecutor();
     
     @Override
     public SearchResult<Object> fullSearch(String keyword, Integer page, Integer size) {
@@ -39,20 +70,66 @@ public class SearchServiceImpl implements SearchService {
             return new SearchResult<>(keyword, 0, page, size, new ArrayList<>());
         }
         
-        // 分别搜索文章和用户
-        SearchResult<Article> articleResult = searchArticles(keyword, 1, 5);
-        SearchResult<User> userResult = searchUsers(keyword, 1, 3);
-        SearchResult<Tag> tagResult = searchTags(keyword, 1, 2);  // 新增标签搜索
-        
-        // 合并结果
-        List<Object> combinedItems = new ArrayList<>();
-        combinedItems.addAll(articleResult.getItems());
-        combinedItems.addAll(userResult.getItems());
-        combinedItems.addAll(tagResult.getItems());
+        // 文章、用户、标签三个子搜索并发执行，整体耗时取决于最慢的一个
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fullSearchTimeoutMs);
+        Future<SearchResult<Article>> articleFuture = searchExecutor.submit(() -> searchArticles(keyword, 1, 5));
+        Future<SearchResult<User>> userFuture = searchExecutor.submit(() -> searchUsers(keyword, 1, 3));
+        Future<SearchResult<Tag>> tagFuture = searchExecutor.submit(() -> searchTags(keyword, 1, 2));  // 新增标签搜索
         
-        int total = articleResult.getTotal() + userResult.getTotal() + tagResult.getTotal();
+        // 合并结果（保持 文章、用户、标签 的顺序），超时或失败的子搜索跳过并标记为部分结果
+        SearchResult<Object> result = new SearchResult<>(keyword, 0, page, size, new ArrayList<>());
+        mergeResult(result, articleFuture, deadline, "文章");
+        mergeResult(result, userFuture, deadline, "用户");
+        mergeResult(result, tagFuture, deadline, "标签");
         
-        return new SearchResult<>(keyword, total, page, size, combinedItems);
+        return result;
+    }
+    
+    /**
+     * 在截止时间前等待子搜索结果并合并
+     */
+    private void mergeResult(SearchResult<Object> result, Future<? extends SearchResult<?>> future,
+                             long deadline, String name) {
+        try {
+            SearchResult<?> part = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            result.getItems().addAll(part.getItems());
+            result.setTotal(result.getTotal() + part.getTotal());
+        } catch (TimeoutException e) {
+            // 中断子搜索线程，连同它内部提交的查询一起取消
+            future.cancel(true);
+            result.setPartial(true);
+            log.warn("全文搜索子查询超时({}): {}", name, result.getKeyword());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            result.setPartial(true);
+        } catch (ExecutionException e) {
+            result.setPartial(true);
+            log.warn("全文搜索子查询失败({}): {}", name, e.getCause().getMessage());
+        }
+    }
+    
+    /**
+     * 等待并发执行的查询结果；等待中被中断（上层子搜索超时取消）时一并取消该查询
+     */
+    private <T> T awaitQuery(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("搜索已取消");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("搜索失败", e.getCause());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdown();
     }
     
     @Override
@@ -63,13 +140,47 @@ public class SearchServiceImpl implements SearchService {
         
         int offset = (page - 1) * size;
         
-        List<Article> articles = articleMapper.searchArticles(
-            keyword, offset, size
+        // 优先走内存倒排索引，索引未就绪（启动加载中或已禁用）时回退到数据库查询
+        if (articleSearchIndex.isReady()) {
+            ArticleSearchIndex.Hits hits = articleSearchIndex.search(keyword, offset, size);
+            return new SearchResult<>(keyword, hits.total(), page, size, loadArticlesInOrder(hits.ids()));
+        }
+        
+        // 分页查询和总数查询并发执行
+        Future<List<Article>> articles = searchExecutor.submit(
+            () -> articleMapper.searchArticles(keyword, offset, size)
         );
         
-        int total = articleMapper.countSearchArticles(keyword);
+        int total;
+        try {
+            total = articleMapper.countSearchArticles(keyword);
+        } catch (RuntimeException e) {
+            articles.cancel(true);
+            throw e;
+        }
         
-        return new SearchResult<>(keyword, total, page, size, articles);
+        return new SearchResult<>(keyword, total, page, size, awaitQuery(articles));
+    }
+    
+    /**
+     * 按索引返回的相关度顺序回表查询文章
+     */
+    private List<Article> loadArticlesInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<Integer, Article> articleMap = articleMapper.findByIds(ids).stream()
+            .collect(Collectors.toMap(Article::getId, article -> article));
+        
+        List<Article> articles = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Article article = articleMap.get(id);
+            if (article != null) {
+                articles.add(article);
+            }
+        }
+        return articles;
     }
     
     @Override
@@ -80,14 +191,23 @@ public class SearchServiceImpl implements SearchService {
         
         int offset = (page - 1) * size;
         
-        List<User> users = userMapper.searchUsers(keyword, offset, size);
+        // 分页查询和总数查询并发执行
+        Future<List<User>> users = searchExecutor.submit(
+            () -> userMapper.searchUsers(keyword, offset, size)
+        );
         
-        int total = userMapper.countSearchUsers(keyword);
+        int total;
+        try {
+            total = userMapper.countSearchUsers(keyword);
+        } catch (RuntimeException e) {
+            users.cancel(true);
+            throw e;
+        }
         
-        return new SearchResult<>(keyword, total, page, size, users);
+        return new SearchResult<>(keyword, total, page, size, awaitQuery(users));
     }
     
-    // 新增方法：搜索标签
+    @Override
     public SearchResult<Tag> searchTags(String keyword, Integer page, Integer size) {
         if (!StringUtils.hasText(keyword)) {
             return new SearchResult<>(keyword, 0, page, size, new ArrayList<>());
@@ -135,70 +255,24 @@ public class SearchServiceImpl implements SearchService {
     
     @Override
     public List<String> getHotKeywords(Integer limit) {
-        // 从数据库获取热门关键词
-        try {
-            return searchRecordMapper.getHotKeywords(limit == null ? 10 : limit);
-        } catch (Exception e) {
-            // 如果表不存在或查询失败，返回示例数据
-            List<String> hotKeywords = new ArrayList<>();
-            hotKeywords.add("Spring Boot");
-            hotKeywords.add("Vue");
-            hotKeywords.add("Java");
-            hotKeywords.add("MySQL");
-            hotKeywords.add("前端");
-            
-            if (limit != null && hotKeywords.size() > limit) {
-                return hotKeywords.subList(0, limit);
-            }
-            
-            return hotKeywords;
-        }
+        // 直接取内存中的热门关键词统计，不再每次聚合 search_record
+        return hotKeywordTracker.top(limit == null ? 10 : limit);
     }
     
     @Override
     public void saveSearchRecord(String keyword, Integer userId) {
-        try {
-            SearchRecord record = new SearchRecord();
-            record.setKeyword(keyword);
-            record.setUserId(userId);
-            searchRecordMapper.upsert(record);
-        } catch (Exception e) {
-            // 记录日志但不要影响主流程
-            System.err.println("保存搜索记录失败: " + e.getMessage());
-        }
+        // 只写入内存缓冲，由缓冲定时批量写库，不占用搜索请求的时间
+        searchRecordBuffer.record(keyword, userId);
+        hotKeywordTracker.record(keyword);
     }
     
-    // 新增方法：获取搜索建议
+    @Override
     public List<String> getSearchSuggestions(String prefix, int limit) {
         if (!StringUtils.hasText(prefix)) {
             return new ArrayList<>();
         }
         
-        List<String> suggestions = new ArrayList<>();
-        
-        // 从文章标题获取建议
-        List<Article> articles = articleMapper.searchArticles(prefix, 0, 5);
-        articles.stream()
-            .map(Article::getTitle)
-            .filter(title -> title.toLowerCase().contains(prefix.toLowerCase()))
-            .limit(limit)
-            .forEach(suggestions::add);
-        
-        // 从标签获取建议
-        List<Tag> tags = tagMapper.findAll();
-        tags.stream()
-            .map(Tag::getName)
-            .filter(name -> name != null && name.toLowerCase().contains(prefix.toLowerCase()))
-            .limit(limit - suggestions.size())
-            .forEach(suggestions::add);
-        
-        // 如果还不够，添加通用建议
-        if (suggestions.size() < limit) {
-            suggestions.add(prefix + " 教程");
-            suggestions.add(prefix + " 入门");
-            suggestions.add(prefix + " 基础");
-        }
-        
-        return suggestions;
+        // 前缀树中直接取缓存的热门词条，不查询数据库
+        return searchSuggester.suggest(prefix, limit);
     }
-}
\ No newline at end of file
+}
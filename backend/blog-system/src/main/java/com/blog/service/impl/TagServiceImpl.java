@@ -3,8 +3,9 @@ package com.blog.service.impl;
 import com.blog.dao.ArticleMapper;
 import com.blog.dao.ArticleTagMapper;
 import com.blog.dao.TagMapper;
-import com.blog.entity.Article;
 import com.blog.entity.Tag;
+import com.blog.entity.vo.ArticleSummaryVO;
+import com.blog.search.SearchSuggester;
 import com.blog.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,6 +32,9 @@ public class TagServiceImpl implements TagService {
     @Autowired
     private ArticleMapper articleMapper;
 
+    @Autowired
+    private SearchSuggester searchSuggester;
+
     @Override
     public List<Tag> getAllTags() {
         return tagMapper.findAll();
@@ -79,6 +83,7 @@ public class TagServiceImpl implements TagService {
             // 5. 保存标签
             int result = tagMapper.insert(tag);
             if (result > 0) {
+                searchSuggester.onTagChanged();
                 System.out.println("✅ 标签创建成功: " + tag.getName() + " (ID: " + tag.getId() + ")");
                 return tag;
             } else {
@@ -121,6 +126,9 @@ public class TagServiceImpl implements TagService {
             }
 
             int result = tagMapper.update(tag);
+            if (result > 0) {
+                searchSuggester.onTagChanged();
+            }
             return result > 0;
 
         } catch (RuntimeException e) {
@@ -147,6 +155,9 @@ public class TagServiceImpl implements TagService {
             }
 
             int result = tagMapper.delete(id);
+            if (result > 0) {
+                searchSuggester.onTagChanged();
+            }
             return result > 0;
 
         } catch (RuntimeException e) {
@@ -181,6 +192,7 @@ public class TagServiceImpl implements TagService {
             for (Integer tagId : tagIds) {
                 tagMapper.updateArticleCount(tagId);
             }
+            searchSuggester.onTagChanged();
 
             return true;
 
@@ -258,9 +270,8 @@ public class TagServiceImpl implements TagService {
             throw new RuntimeException("标签不存在");
         }
 
-        // 2. 获取文章ID列表
-        List<Integer> articleIds = articleTagMapper.findArticleIdsByTagName(tagName);
-        int total = articleIds.size();
+        // 2. 统计该标签下已发布的文章数
+        int total = articleMapper.countByTagName(tagName);
 
         if (total == 0) {
             result.put("articles", new ArrayList<>());
@@ -274,20 +285,9 @@ public class TagServiceImpl implements TagService {
 
         // 3. 分页计算
         int offset = (page - 1) * size;
-        int endIndex = Math.min(offset + size, total);
-
-        // 4. 获取文章详情（这里简化处理，实际应该根据ID列表查询）
-        // 注意：这里需要根据sortType排序，但需要更复杂的SQL实现
-        // 暂时返回所有文章，由前端分页
-        List<Article> articles = new ArrayList<>();
-        List<Integer> pageArticleIds = articleIds.subList(offset, endIndex);
-
-        for (Integer articleId : pageArticleIds) {
-            Article article = articleMapper.findById(articleId);
-            if (article != null) {
-                articles.add(article);
-            }
-        }
+
+        // 4. 通过 article_tag 关联表按排序方式分页查询（只查列表字段，不含正文）
+        List<ArticleSummaryVO> articles = articleMapper.findByTagNameWithSort(tagName, sortType, offset, size);
 
         // 5. 计算总页数
         int totalPages = (int) Math.ceil((double) total / size);
@@ -1,18 +1,30 @@
 package com.blog.service.impl;
 
+import com.blog.cache.UserActivityTracker;
+import com.blog.cache.UserProfileCache;
+import com.blog.cache.UserProfileStats;
+import com.blog.cache.UserSnapshotCache;
 import com.blog.dao.UserMapper;
 import com.blog.entity.ChangePasswordRequest;
 import com.blog.entity.User;
 import com.blog.entity.vo.UserProfileVO;
 import com.blog.entity.vo.UserStatsVO;
-import com.blog.service.FollowService;
+import com.blog.security.PasswordService;
 import com.blog.service.UserService;
 import com.blog.utils.PasswordUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -22,7 +34,19 @@ public class UserServiceImpl implements UserService {
     private UserMapper userMapper;
 
     @Autowired
-    private FollowService followService;
+    private UserSnapshotCache userSnapshotCache;
+
+    @Autowired
+    private UserActivityTracker userActivityTracker;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private UserProfileStats userProfileStats;
 
     @Override
     public User register(User user) {
@@ -59,7 +83,7 @@ public class UserServiceImpl implements UserService {
             }
 
             // 4. 密码加密
-            String encryptedPassword = PasswordUtil.encrypt(user.getPassword());
+            String encryptedPassword = passwordService.hash(user.getPassword());
             user.setPassword(encryptedPassword);
 
             System.out.println("✅ 用户信息验证通过，准备保存到数据库");
@@ -86,32 +110,38 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User login(String username, String password) {
         try {
             System.out.println("🔍 开始用户登录验证: " + username);
 
-            // 1. 根据用户名查询用户
-            User user = userMapper.findByUsername(username);
+            // 1. 根据用户名查询凭证和基本资料
+            User user = userMapper.findLoginByUsername(username);
             if (user == null) {
                 System.out.println("❌ 用户不存在: " + username);
                 throw new RuntimeException("用户不存在");
             }
 
             System.out.println("✅ 找到用户: ID=" + user.getId() +
-                    ", 用户名=" + user.getUsername() +
-                    ", 数据库密码=" + user.getPassword());
-
-            // 2. 验证密码
-            String encryptedPassword = PasswordUtil.encrypt(password);
-            System.out.println("🔐 输入密码加密后: " + encryptedPassword);
+                    ", 用户名=" + user.getUsername());
 
-            if (!user.getPassword().equals(encryptedPassword)) {
+            // 2. 验证密码（在密码哈希线程池中执行）
+            PasswordService.Verification verification = passwordService.verify(password, user.getPassword());
+            if (!verification.matched()) {
                 System.out.println("❌ 密码不匹配");
-                System.out.println("   - 数据库密码: " + user.getPassword());
-                System.out.println("   - 输入加密后: " + encryptedPassword);
                 throw new RuntimeException("密码错误");
             }
 
+            // 旧格式（MD5或迭代次数过低）的密码换成新哈希，失败不影响本次登录
+            if (verification.rehash() != null) {
+                try {
+                    userMapper.updatePassword(user.getId(), verification.rehash());
+                    System.out.println("🔐 已升级用户密码哈希: ID=" + user.getId());
+                } catch (Exception e) {
+                    System.err.println("⚠️ 升级密码哈希失败: " + e.getMessage());
+                }
+            }
+
             System.out.println("✅ 密码验证通过");
 
             // 3. 检查用户状态
@@ -205,6 +235,8 @@ public class UserServiceImpl implements UserService {
             // 3. 保存到数据库
             int result = userMapper.update(existingUser);
             if (result > 0) {
+                userSnapshotCache.invalidate(user.getId());
+                userProfileCache.invalidate(user.getId());
                 System.out.println("✅ 用户信息更新成功");
                 return true;
             } else {
@@ -240,6 +272,8 @@ public class UserServiceImpl implements UserService {
             // 3. 保存到数据库
             int result = userMapper.update(existingUser);
             if (result > 0) {
+                userSnapshotCache.invalidate(user.getId());
+                userProfileCache.invalidate(user.getId());
                 System.out.println("✅ 用户头像更新成功: ID=" + user.getId() +
                         ", 新头像: " + user.getAvatar());
                 return true;
@@ -293,24 +327,17 @@ public class UserServiceImpl implements UserService {
                 throw new RuntimeException("用户不存在");
             }
 
-            System.out.println("👤 用户信息 - 用户名: " + user.getUsername() +
-                    ", 数据库密码: " + user.getPassword());
-
             // 5. 验证原密码
-            String encryptedOldPassword = PasswordUtil.encrypt(request.getOldPassword());
-            System.out.println("🔍 原密码验证 - 输入加密: " + encryptedOldPassword +
-                    ", 数据库存储: " + user.getPassword());
-
-            if (!user.getPassword().equals(encryptedOldPassword)) {
+            if (!passwordService.verify(request.getOldPassword(), user.getPassword()).matched()) {
                 System.out.println("❌ 原密码错误");
                 throw new RuntimeException("原密码错误");
             }
 
             // 6. 验证新密码是否与原密码相同
-            String encryptedNewPassword = PasswordUtil.encrypt(request.getNewPassword());
-            if (user.getPassword().equals(encryptedNewPassword)) {
+            if (request.getNewPassword().equals(request.getOldPassword())) {
                 throw new RuntimeException("新密码不能与原密码相同");
             }
+            String encryptedNewPassword = passwordService.hash(request.getNewPassword());
 
             // 7. 检查新密码强度（可选）
             int strength = PasswordUtil.checkPasswordStrength(request.getNewPassword());
@@ -387,64 +414,29 @@ public class UserServiceImpl implements UserService {
         try {
             System.out.println("📋 获取用户个人中心信息: ID=" + userId);
 
-            // 1. 获取用户基本信息
-            User user = userMapper.findById(userId);
-            if (user == null) {
+            // 1. 获取用户资料（本地缓存）
+            UserProfileCache.Profile cached = userProfileCache.get(userId);
+            if (cached == null) {
                 System.out.println("❌ 用户不存在: ID=" + userId);
                 throw new RuntimeException("用户不存在");
             }
+            UserProfileVO profileVO = cached.profile();
 
-            System.out.println("✅ 找到用户: " + user.getUsername());
-
-            // 2. 创建UserProfileVO
-            UserProfileVO profileVO = new UserProfileVO();
-
-            // 3. 设置基本信息
-            profileVO.setId(user.getId());
-            profileVO.setUsername(user.getUsername());
-            profileVO.setEmail(user.getEmail());
-            profileVO.setAvatar(user.getAvatar());
-            profileVO.setBio(user.getBio());
-            profileVO.setCreateTime(user.getCreateTime());
-            profileVO.setLastLoginTime(user.getLastLoginTime());
-            profileVO.setLastLoginIp(user.getLastLoginIp());
-
-            // 4. 判断在线状态（最后活动时间在5分钟内为在线）
-            boolean isOnline = false;
-            if (user.getLastActiveTime() != null) {
-                java.time.Duration duration = java.time.Duration.between(
-                        user.getLastActiveTime(),
-                        java.time.LocalDateTime.now());
-                long diffInMinutes = duration.toMinutes();
-                isOnline = diffInMinutes < 5; // 5分钟内活动算在线
+            // 2. 登录记录尚未写回数据库时以内存中的为准
+            UserActivityTracker.LoginRecord pendingLogin = userActivityTracker.pendingLogin(userId);
+            if (pendingLogin != null) {
+                profileVO.setLastLoginTime(pendingLogin.time());
+                profileVO.setLastLoginIp(pendingLogin.ip());
             }
-            profileVO.setIsOnline(isOnline);
 
-            // 5. 设置统计信息
-            UserStatsVO statsVO = new UserStatsVO();
-            statsVO.setArticleCount(user.getArticleCount() != null ? user.getArticleCount() : 0);
-            statsVO.setLikeCount(user.getLikeCount() != null ? user.getLikeCount() : 0);
-            statsVO.setViewCount(user.getViewCount() != null ? user.getViewCount() : 0);
-
-            // 6. 获取关注和粉丝数量
-            try {
-                statsVO.setFollowingCount(followService.getFollowingCount(userId));
-                statsVO.setFollowerCount(followService.getFollowerCount(userId));
-            } catch (Exception e) {
-                System.err.println("❌ 获取关注数量异常: " + e.getMessage());
-                // 如果获取失败，设置为0
-                statsVO.setFollowingCount(0);
-                statsVO.setFollowerCount(0);
-            }
+            // 3. 判断在线状态（最后活动时间在在线窗口内为在线，默认5分钟）
+            boolean isOnline = userActivityTracker.isOnline(userId, cached.lastActiveTime());
+            profileVO.setIsOnline(isOnline);
 
+            // 4. 统计信息（文章、获赞、阅读、关注、粉丝，内存中增量维护）
+            UserStatsVO statsVO = userProfileStats.get(userId);
             profileVO.setStats(statsVO);
 
-            System.out.println("📊 用户统计信息: 文章=" + statsVO.getArticleCount() +
-                    ", 获赞=" + statsVO.getLikeCount() +
-                    ", 阅读=" + statsVO.getViewCount() +
-                    ", 关注=" + statsVO.getFollowingCount() +
-                    ", 粉丝=" + statsVO.getFollowerCount());
-
             return profileVO;
 
         } catch (RuntimeException e) {
@@ -478,6 +470,7 @@ public class UserServiceImpl implements UserService {
             // 保存到数据库
             int result = userMapper.update(user);
             if (result > 0) {
+                userProfileCache.invalidate(userId);
                 System.out.println("✅ 个人简介更新成功: ID=" + userId +
                         ", 新简介: " + (bio.length() > 50 ? bio.substring(0, 50) + "..." : bio));
                 return true;
@@ -497,57 +490,48 @@ public class UserServiceImpl implements UserService {
      * 更新最后登录信息
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void updateLastLogin(Integer userId, String ip) {
-        try {
-            System.out.println("🔐 更新用户最后登录信息: ID=" + userId + ", IP=" + ip);
-
-            // 检查用户是否存在
-            User user = userMapper.findById(userId);
-            if (user == null) {
-                System.out.println("⚠️ 用户不存在，跳过更新最后登录信息: ID=" + userId);
-                return;
-            }
-
-            // 更新最后登录信息
-            int result = userMapper.updateLastLogin(userId, java.time.LocalDateTime.now(), ip);
-            if (result > 0) {
-                System.out.println("✅ 最后登录信息更新成功");
-            } else {
-                System.out.println("⚠️ 最后登录信息更新失败（可能是字段不存在）");
-            }
-
-        } catch (Exception e) {
-            System.err.println("❌ 更新最后登录信息异常: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // 只记录到内存，由 UserActivityTracker 定时批量写回
+        userActivityTracker.recordLogin(userId, ip);
     }
 
     /**
      * 更新最后活动时间
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void updateLastActive(Integer userId) {
-        try {
-            // 只在调试时打印，避免日志过多
-            // System.out.println("🔄 更新用户最后活动时间: ID=" + userId);
+        // 只记录到内存，由 UserActivityTracker 定时批量写回
+        userActivityTracker.touch(userId);
+    }
 
-            // 检查用户是否存在
-            User user = userMapper.findById(userId);
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getOnlineUsers(int limit) {
+        List<Integer> ids = userActivityTracker.onlineUserIds(limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, User> users = new HashMap<>();
+        for (User user : userMapper.findActiveByIds(ids)) {
+            users.put(user.getId(), user);
+        }
+
+        // 保持最后活动时间倒序，并用内存中的时间覆盖尚未写回的数据库值
+        List<User> online = new ArrayList<>(users.size());
+        for (Integer id : ids) {
+            User user = users.get(id);
             if (user == null) {
-                // 调试时打印
-                // System.out.println("⚠️ 用户不存在，跳过更新最后活动时间: ID=" + userId);
-                return;
+                continue;
             }
-
-            // 更新最后活动时间
-            int result = userMapper.updateLastActive(userId, java.time.LocalDateTime.now());
-            if (result <= 0) {
-                System.out.println("⚠️ 最后活动时间更新失败（可能是字段不存在）");
+            Long lastSeen = userActivityTracker.lastSeen(id);
+            if (lastSeen != null) {
+                user.setLastActiveTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen), ZoneId.systemDefault()));
             }
-
-        } catch (Exception e) {
-            System.err.println("❌ 更新最后活动时间异常: " + e.getMessage());
-            e.printStackTrace();
+            online.add(user);
         }
+        return online;
     }
-}
\ No newline at end of file
+}
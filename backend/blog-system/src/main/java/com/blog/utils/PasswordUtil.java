@@ -1,31 +1,11 @@
 package com.blog.utils;
 
-import org.springframework.util.DigestUtils;
-
 /**
  * 密码工具类
+ * 密码的哈希和校验见 com.blog.security.PasswordService
  */
 public class PasswordUtil {
     
-    // 注释掉或删除盐值
-    // private static final String SALT = "BLOG_SYSTEM_2024_SALT_@#$%";
-    
-    public static String encrypt(String password) {
-        if (password == null || password.isEmpty()) {
-            throw new IllegalArgumentException("密码不能为空");
-        }
-        // 直接使用MD5，不加盐（与数据库存储一致）
-        return DigestUtils.md5DigestAsHex(password.getBytes());
-    }
-    
-    public static boolean verify(String password, String encryptedPassword) {
-        if (password == null || encryptedPassword == null) {
-            return false;
-        }
-        // 直接比较MD5
-        return encrypt(password).equals(encryptedPassword);
-    }
-    
     /**
      * 生成随机密码（用于忘记密码重置）
      * @param length 密码长度
@@ -10,6 +10,43 @@ public class SessionUtil {
     public static final String SESSION_USER_ID = "userId";
     public static final String SESSION_USERNAME = "username";
     public static final String SESSION_ROLE = "role";
+
+    /**
+     * 当前请求已解析出的登录用户（request 属性），同一请求内后续读取不再访问 Session
+     */
+    public static final String REQUEST_PRINCIPAL = SessionUtil.class.getName() + ".principal";
+
+    /**
+     * 无状态模式（签名令牌）；为null时使用 HttpSession
+     */
+    private static volatile TokenSession tokenSession;
+
+    /**
+     * 启用无状态模式，之后登录信息保存在签名令牌中，不再创建 HttpSession
+     */
+    public static void enableTokenSession(TokenSession session) {
+        tokenSession = session;
+    }
+
+    /**
+     * 当前请求已解析的登录用户；无状态模式下首次读取时校验令牌并缓存
+     */
+    private static User principal(HttpServletRequest request) {
+        Object cached = request.getAttribute(REQUEST_PRINCIPAL);
+        if (cached instanceof User) {
+            return (User) cached;
+        }
+
+        TokenSession tokens = tokenSession;
+        if (tokens == null) {
+            return null;
+        }
+        User user = tokens.resolve(request);
+        if (user != null) {
+            request.setAttribute(REQUEST_PRINCIPAL, user);
+        }
+        return user;
+    }
     
     /**
      * 检查用户是否登录
@@ -22,9 +59,18 @@ public class SessionUtil {
      * 获取当前登录用户
      */
     public static User getCurrentUser(HttpServletRequest request) {
+        User principal = principal(request);
+        if (principal != null || tokenSession != null) {
+            return principal;
+        }
+
         HttpSession session = request.getSession(false);
         if (session != null) {
-            return (User) session.getAttribute(SESSION_USER);
+            User user = (User) session.getAttribute(SESSION_USER);
+            if (user != null) {
+                request.setAttribute(REQUEST_PRINCIPAL, user);
+            }
+            return user;
         }
         return null;
     }
@@ -33,6 +79,11 @@ public class SessionUtil {
      * 获取当前用户ID
      */
     public static Integer getCurrentUserId(HttpServletRequest request) {
+        User principal = principal(request);
+        if (principal != null || tokenSession != null) {
+            return principal == null ? null : principal.getId();
+        }
+
         HttpSession session = request.getSession(false);
         if (session != null) {
             Object userIdObj = session.getAttribute(SESSION_USER_ID);
@@ -47,6 +98,11 @@ public class SessionUtil {
      * 获取当前用户名
      */
     public static String getCurrentUsername(HttpServletRequest request) {
+        User principal = principal(request);
+        if (principal != null || tokenSession != null) {
+            return principal == null ? null : principal.getUsername();
+        }
+
         HttpSession session = request.getSession(false);
         if (session != null) {
             Object usernameObj = session.getAttribute(SESSION_USERNAME);
@@ -61,6 +117,11 @@ public class SessionUtil {
      * 获取当前用户角色
      */
     public static Integer getCurrentUserRole(HttpServletRequest request) {
+        User principal = principal(request);
+        if (principal != null || tokenSession != null) {
+            return principal == null ? null : principal.getRole();
+        }
+
         HttpSession session = request.getSession(false);
         if (session != null) {
             Object roleObj = session.getAttribute(SESSION_ROLE);
@@ -77,20 +138,47 @@ public class SessionUtil {
     }
     
     /**
-     * 设置用户登录信息到Session
+     * 设置用户登录信息到Session（无状态模式下签发令牌）
      */
     public static void setLoginUser(HttpServletRequest request, User user) {
+        TokenSession tokens = tokenSession;
+        if (tokens != null) {
+            tokens.login(user);
+            request.setAttribute(REQUEST_PRINCIPAL, compact(user));
+            return;
+        }
+
+        User principal = compact(user);
         HttpSession session = request.getSession(true);
-        session.setAttribute(SESSION_USER, user);
-        session.setAttribute(SESSION_USER_ID, user.getId());
-        session.setAttribute(SESSION_USERNAME, user.getUsername());
-        session.setAttribute(SESSION_ROLE, user.getRole());
+        session.setAttribute(SESSION_USER, principal);
+        session.setAttribute(SESSION_USER_ID, principal.getId());
+        session.setAttribute(SESSION_USERNAME, principal.getUsername());
+        session.setAttribute(SESSION_ROLE, principal.getRole());
+        request.setAttribute(REQUEST_PRINCIPAL, principal);
+    }
+
+    /**
+     * Session 中只保存识别当前用户需要的字段（ID、用户名、头像、角色），完整资料按需查询
+     */
+    private static User compact(User user) {
+        User principal = new User();
+        principal.setId(user.getId());
+        principal.setUsername(user.getUsername());
+        principal.setAvatar(user.getAvatar());
+        principal.setRole(user.getRole());
+        return principal;
     }
     
     /**
      * 清除用户登录信息
      */
     public static void clearLoginUser(HttpServletRequest request) {
+        request.removeAttribute(REQUEST_PRINCIPAL);
+        TokenSession tokens = tokenSession;
+        if (tokens != null) {
+            tokens.logout();
+            return;
+        }
         HttpSession session = request.getSession(false);
         if (session != null) {
             session.removeAttribute(SESSION_USER);
@@ -0,0 +1,182 @@
+package com.blog.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * HMAC 签名的登录令牌（无状态会话使用）
+ * 格式：Base64URL(用户ID 4字节 + 角色 4字节 + 过期时间毫秒 8字节) + "." + Base64URL(HMAC-SHA256 前16字节)，共45个字符
+ * 校验时复用线程内的 Mac 和缓冲区，除返回的 Claims 外不分配对象；签名用常量时间比较
+ */
+public final class SignedToken {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int PAYLOAD_BYTES = 16;
+    private static final int SIGNATURE_BYTES = 16;
+    private static final int PAYLOAD_CHARS = 22;
+    private static final int SIGNATURE_CHARS = 22;
+    private static final int TOKEN_LENGTH = PAYLOAD_CHARS + 1 + SIGNATURE_CHARS;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final int[] DECODE_TABLE = new int[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * 令牌内容
+     */
+    public record Claims(int userId, int role, long expiresAt) {
+    }
+
+    private final class Buffers {
+        final Mac mac = newMac();
+        final byte[] payload = new byte[PAYLOAD_BYTES];
+        final byte[] signature = new byte[SIGNATURE_BYTES];
+        final byte[] digest = new byte[32];
+    }
+
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public SignedToken(byte[] secret) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("令牌密钥至少32字节");
+        }
+        this.key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        newMac();
+    }
+
+    /**
+     * 签发令牌
+     */
+    public String issue(int userId, int role, long expiresAt) {
+        Buffers b = buffers.get();
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        writeInt(payload, 0, userId);
+        writeInt(payload, 4, role);
+        writeLong(payload, 8, expiresAt);
+
+        b.mac.update(payload);
+        sign(b);
+        byte[] signature = Arrays.copyOf(b.digest, SIGNATURE_BYTES);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * 校验令牌，格式错误、签名不符或已过期返回null
+     */
+    public Claims verify(CharSequence token, long now) {
+        if (token == null || token.length() != TOKEN_LENGTH || token.charAt(PAYLOAD_CHARS) != '.') {
+            return null;
+        }
+
+        Buffers b = buffers.get();
+        if (!decode(token, 0, PAYLOAD_CHARS, b.payload)
+                || !decode(token, PAYLOAD_CHARS + 1, TOKEN_LENGTH, b.signature)) {
+            return null;
+        }
+
+        b.mac.update(b.payload);
+        sign(b);
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_BYTES; i++) {
+            diff |= b.digest[i] ^ b.signature[i];
+        }
+        if (diff != 0) {
+            return null;
+        }
+
+        long expiresAt = readLong(b.payload, 8);
+        if (expiresAt <= now) {
+            return null;
+        }
+        return new Claims(readInt(b.payload, 0), readInt(b.payload, 4), expiresAt);
+    }
+
+    private void sign(Buffers b) {
+        try {
+            b.mac.doFinal(b.digest, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("令牌签名失败", e);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化令牌签名失败", e);
+        }
+    }
+
+    /**
+     * Base64URL（无填充）解码到定长缓冲区，字符非法或长度不符返回false
+     */
+    private static boolean decode(CharSequence source, int from, int to, byte[] target) {
+        int bits = 0;
+        int bitCount = 0;
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                if (index == target.length) {
+                    return false;
+                }
+                target[index++] = (byte) (bits >> bitCount);
+            }
+        }
+        // 剩余的填充位必须为0，保证每个令牌只有一种合法写法
+        return index == target.length && (bits & ((1 << bitCount) - 1)) == 0;
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            buffer[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void writeLong(byte[] buffer, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            buffer[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static int readInt(byte[] buffer, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (buffer[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long readLong(byte[] buffer, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
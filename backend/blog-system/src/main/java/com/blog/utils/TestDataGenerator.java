@@ -2,6 +2,7 @@ package com.blog.utils;
 
 import com.blog.dao.*;
 import com.blog.entity.*;
+import com.blog.security.PasswordService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -18,6 +19,9 @@ public class TestDataGenerator implements CommandLineRunner {
     @Autowired
     private UserMapper userMapper;
     
+    @Autowired
+    private PasswordService passwordService;
+    
     @Autowired
     private CategoryMapper categoryMapper;
     
@@ -103,7 +107,7 @@ public class TestDataGenerator implements CommandLineRunner {
     private User createUser(String username, String password, String email, Integer role) {
         User user = new User();
         user.setUsername(username);
-        user.setPassword(PasswordUtil.encrypt(password));
+        user.setPassword(passwordService.hash(password));
         user.setEmail(email);
         user.setRole(role);
         user.setAvatar("avatar" + (random.nextInt(5) + 1) + ".jpg");
@@ -0,0 +1,138 @@
+package com.blog.utils;
+
+import com.blog.entity.User;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 无状态会话：登录信息（用户ID、角色、过期时间）放在 HMAC 签名令牌中，服务端不保存会话
+ * 1. 令牌通过 HttpOnly Cookie 下发，也可以放在 Authorization: Bearer 请求头中
+ * 2. 剩余有效期不足一半时自动续签，效果与 Session 的空闲超时相同
+ * 3. 令牌签发后在过期前一直有效，退出登录只删除客户端 Cookie
+ * 4. 角色在签发时写入令牌，校验时不再查询用户状态：用户被降级或封禁后，已签发的令牌在过期前仍按原角色生效，
+ *    且续签沿用令牌中的角色，持续活跃的会话会一直保留原角色，需要重新登录（或更换 token-secret 使所有令牌失效）才会更新
+ */
+public class TokenSession {
+
+    /**
+     * 登录成功时同时在响应头中返回令牌，供非浏览器客户端使用
+     */
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final SignedToken signer;
+    private final long ttlMillis;
+    private final String cookieName;
+    private final boolean secureCookie;
+    private final Function<SignedToken.Claims, User> principalResolver;
+
+    /**
+     * @param principalResolver 根据令牌内容构造当前用户，用户已不存在时返回null
+     */
+    public TokenSession(SignedToken signer, Duration ttl, String cookieName, boolean secureCookie,
+                        Function<SignedToken.Claims, User> principalResolver) {
+        this.signer = signer;
+        this.ttlMillis = ttl.toMillis();
+        this.cookieName = cookieName;
+        this.secureCookie = secureCookie;
+        this.principalResolver = principalResolver;
+    }
+
+    /**
+     * 校验请求中的令牌，返回当前用户（未登录或令牌无效返回null）
+     */
+    public User resolve(HttpServletRequest request) {
+        String token = readToken(request);
+        if (token == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        SignedToken.Claims claims = signer.verify(token, now);
+        if (claims == null) {
+            return null;
+        }
+
+        User user = principalResolver.apply(claims);
+        if (user != null && claims.expiresAt() - now < ttlMillis / 2) {
+            writeToken(issue(user, now));
+        }
+        return user;
+    }
+
+    /**
+     * 登录：签发令牌写入响应
+     */
+    public void login(User user) {
+        writeToken(issue(user, System.currentTimeMillis()));
+    }
+
+    /**
+     * 退出登录：删除客户端 Cookie
+     */
+    public void logout() {
+        HttpServletResponse response = currentResponse();
+        if (response != null) {
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie("", Duration.ZERO).toString());
+        }
+    }
+
+    private String issue(User user, long now) {
+        int role = user.getRole() == null ? 0 : user.getRole();
+        return signer.issue(user.getId(), role, now + ttlMillis);
+    }
+
+    private String readToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void writeToken(String token) {
+        HttpServletResponse response = currentResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(token, Duration.ofMillis(ttlMillis)).toString());
+        response.setHeader(TOKEN_HEADER, token);
+    }
+
+    private ResponseCookie cookie(String value, Duration maxAge) {
+        return ResponseCookie.from(cookieName, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .path("/")
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private static HttpServletResponse currentResponse() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getResponse();
+        }
+        return null;
+    }
+}
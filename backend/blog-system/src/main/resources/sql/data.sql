@@ -27,6 +27,9 @@ CREATE TABLE IF NOT EXISTS `user_follow` (
   FOREIGN KEY (`follower_id`) REFERENCES `user`(`id`) ON DELETE CASCADE,
   FOREIGN KEY (`following_id`) REFERENCES `user`(`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB COMMENT='用户关注关系表';
+-- 关注/粉丝列表按 (关注时间, ID) 游标分页
+CREATE INDEX idx_follow_follower_time ON user_follow(follower_id, status, create_time, id);
+CREATE INDEX idx_follow_following_time ON user_follow(following_id, status, create_time, id);
 
 -- 插入初始分类数据
 INSERT INTO `category` (name, slug, description, icon, color, order_num) VALUES
@@ -44,4 +47,12 @@ INSERT INTO `tag` (name, slug, description, color) VALUES
 ('Vue', 'vue', 'Vue.js前端框架', '#42b983'),
 ('MySQL', 'mysql', 'MySQL数据库', '#00758f'),
 ('Docker', 'docker', '容器化技术', '#2496ed')
-ON DUPLICATE KEY UPDATE name=VALUES(name);
\ No newline at end of file
+ON DUPLICATE KEY UPDATE name=VALUES(name);
+
+-- 文章标签关联（article_tag）不在这里补全：StartupMigration 启动完成后检查，只有存在未建立关联的文章或缺少冗余发布时间时才执行
+
+-- 已有回复的 root_id 不在这里补全：StartupMigration 启动完成后检查，只有存在 root_id 为空的回复时才执行
+
+-- 文章评论数不在这里校正：CommentStatistics 启动完成后按 comment 表对账一次（只更新不一致的行），之后在评论增删时批量同步
+
+-- 用户关注数、粉丝数不在这里初始化：FollowCountCache 启动后立即对账一次（只更新不一致的行），之后定时对账
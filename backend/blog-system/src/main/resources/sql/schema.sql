@@ -53,6 +53,13 @@ CREATE TABLE IF NOT EXISTS `article` (
   `publish_time` DATETIME COMMENT '发布时间'
 ) ENGINE=InnoDB COMMENT='文章表';
 
+-- 文章列表游标分页索引（排序列 + id 作为唯一的排序键）
+CREATE INDEX idx_article_status_top_time ON article(status, is_top, create_time, id);
+CREATE INDEX idx_article_category_time ON article(category_id, status, create_time, id);
+CREATE INDEX idx_article_category_view ON article(category_id, status, view_count, id);
+CREATE INDEX idx_article_category_like ON article(category_id, status, like_count, id);
+CREATE INDEX idx_article_user_status_time ON article(user_id, status, create_time, id);
+
 -- 文件上传记录表
 CREATE TABLE IF NOT EXISTS `upload_file` (
   `id` INT PRIMARY KEY AUTO_INCREMENT COMMENT '文件ID',
@@ -92,6 +99,17 @@ CREATE TABLE IF NOT EXISTS `search_record` (
 -- 索引
 CREATE INDEX idx_keyword ON search_record(keyword);
 CREATE INDEX idx_user_time ON search_record(user_id, last_search_time);
+-- 搜索记录按 关键词+用户 合并（匿名用户 user_id 为 NULL，用生成列折算为0参与唯一键），批量写入时 ON DUPLICATE KEY 累加次数
+ALTER TABLE search_record ADD COLUMN user_key INT AS (IFNULL(user_id, 0)) STORED;
+-- 已有重复行时这里会失败，由 SearchRecordBuffer 启动时合并重复行后再建索引
+CREATE UNIQUE INDEX uk_keyword_user ON search_record(keyword, user_key);
+
+CREATE TABLE IF NOT EXISTS `hot_keyword` (
+  `keyword` VARCHAR(100) PRIMARY KEY COMMENT '关键词',
+  `score` DOUBLE NOT NULL DEFAULT 0 COMMENT '检查点时刻的衰减后搜索次数',
+  `error` DOUBLE NOT NULL DEFAULT 0 COMMENT '计数的最大高估量',
+  `checkpoint_time` DATETIME NOT NULL COMMENT '检查点时间'
+) ENGINE=InnoDB COMMENT='热门搜索关键词检查点表';
 
 CREATE TABLE IF NOT EXISTS `article_like` (
   `id` INT PRIMARY KEY AUTO_INCREMENT,
@@ -122,15 +140,28 @@ CREATE TABLE IF NOT EXISTS `article_tag` (
   `article_id` INT NOT NULL COMMENT '文章ID',
   `tag_id` INT NOT NULL COMMENT '标签ID',
   `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `article_create_time` DATETIME NULL COMMENT '文章发布时间（冗余，用于标签页按时间排序）',
   UNIQUE KEY `uk_article_tag` (`article_id`, `tag_id`),
   FOREIGN KEY (`article_id`) REFERENCES `article`(`id`) ON DELETE CASCADE,
   FOREIGN KEY (`tag_id`) REFERENCES `tag`(`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB COMMENT='文章标签关联表';
 
+-- 按标签查文章：标签页默认按发布时间倒序，冗余文章发布时间后沿 (tag_id, article_create_time, article_id) 倒序扫描，
+-- 取够一页即停，不需要对整个标签下的文章排序；文章发布时间写入后不变，冗余不增加写入
+-- 阅读量、点赞数排序仍在回表后排序：这两列随计数器定时写回不断变化，冗余到关联表会把每次写回放大为按标签数的多行更新
+ALTER TABLE `article_tag` ADD COLUMN `article_create_time` DATETIME NULL COMMENT '文章发布时间（冗余，用于标签页按时间排序）';
+CREATE INDEX idx_article_tag_time ON article_tag(tag_id, article_create_time, article_id);
+
 ALTER TABLE `user` 
 ADD COLUMN `last_login_time` DATETIME COMMENT '最后登录时间',
 ADD COLUMN `last_login_ip` VARCHAR(45) COMMENT '最后登录IP',
 ADD COLUMN `last_active_time` DATETIME COMMENT '最后活动时间';
+-- 密码改为 PBKDF2（算法、迭代次数、盐、摘要一起编码保存），旧的 MD5 密码登录成功时重新计算
+ALTER TABLE `user` MODIFY COLUMN `password` VARCHAR(255) NOT NULL COMMENT '密码';
+-- 关注数、粉丝数计数列：关注/取消关注时与关注记录在同一事务内更新，定时按 user_follow 对账
+ALTER TABLE `user`
+ADD COLUMN `following_count` INT DEFAULT 0 COMMENT '关注数',
+ADD COLUMN `follower_count` INT DEFAULT 0 COMMENT '粉丝数';
 
 
 -- 4. 重新创建comment表（简化版，先不加外键约束）
@@ -151,6 +182,12 @@ CREATE TABLE IF NOT EXISTS `comment` (
     INDEX idx_parent_id (parent_id),
     INDEX idx_user_id (user_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评论表';
+-- 按文章一次取出全部评论（按时间正序）组装评论树
+CREATE INDEX idx_comment_article_status_time ON comment(article_id, status, create_time, id);
+-- 讨论串：root_id 记录所属顶级评论（顶级评论为0），顶级评论和同一讨论串的回复都按 (create_time, id) 游标分页
+ALTER TABLE comment ADD COLUMN root_id INT DEFAULT 0 COMMENT '所属顶级评论ID（0表示顶级评论）' AFTER parent_id;
+CREATE INDEX idx_comment_article_parent_time ON comment(article_id, parent_id, status, create_time, id);
+CREATE INDEX idx_comment_root_time ON comment(root_id, status, create_time, id);
 
 -- 5. 重新创建user_like表
 CREATE TABLE IF NOT EXISTS `user_like` (
@@ -0,0 +1,64 @@
+package com.blog.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VersionedLoaderTest {
+
+    private final WeightedLruCache<Integer, String> cache = new WeightedLruCache<>(100, 0, value -> 1);
+    private final VersionedLoader<Integer, String> loader = new VersionedLoader<>(cache);
+
+    @Test
+    void cachesLoadedValue() {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("v1", loader.get(1, id -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", loader.get(1, id -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void nullLoadIsNotCached() {
+        assertNull(loader.get(1, id -> null));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void loadRacingAnUpdateIsNotCached() {
+        // 加载期间同一个key被修改：返回读到的值，但不放入缓存
+        String loaded = loader.get(1, id -> {
+            loader.invalidate(1);
+            return "stale";
+        });
+        assertEquals("stale", loaded);
+        assertNull(cache.get(1));
+
+        assertEquals("fresh", loader.get(1, id -> "fresh"));
+        assertEquals("fresh", cache.get(1));
+    }
+
+    @Test
+    void loadRacingInvalidateAllIsNotCached() {
+        loader.get(1, id -> {
+            loader.invalidateAll();
+            return "stale";
+        });
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void updateChangesCachedValueOnly() {
+        loader.get(1, id -> "a");
+        loader.update(1, value -> value + "b");
+        loader.update(2, value -> value + "b");
+        assertEquals("ab", cache.get(1));
+        assertNull(cache.get(2));
+
+        // 没有事务时立即执行
+        loader.updateAfterCommit(1, value -> null);
+        assertNull(cache.get(1));
+    }
+}
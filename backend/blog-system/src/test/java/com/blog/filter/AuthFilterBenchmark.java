@@ -0,0 +1,115 @@
+package com.blog.filter;
+
+import com.blog.cache.UserActivityTracker;
+import com.blog.entity.User;
+import com.blog.utils.SessionUtil;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求的登录校验开销
+ * authFilter 为 AuthFilter.doFilter 的完整耗时（排除路径直接放行；其余路径从 Session 解析登录用户并记录活动时间），
+ * pathMatcher 与 legacyExcludeScan 对比排除路径匹配本身：前缀树 与 原来逐个 String.replace 比较的写法
+ * 运行：mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ *      java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) org.openjdk.jmh.Main AuthFilterBenchmark -prof gc
+ * 加 -prof gc 可以看到每次调用的内存分配
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    /**
+     * 与 AuthFilter 的排除路径一致
+     */
+    private static final String[] EXCLUDE_PATHS = {
+            "/api/user/login",
+            "/api/user/register",
+            "/api/test/**",
+            "/api/debug/**",
+            "/traditional/**",
+            "/static/**",
+            "/error"
+    };
+
+    private static final PathPrefixMatcher MATCHER = new PathPrefixMatcher(EXCLUDE_PATHS);
+
+    private static final FilterChain CHAIN = (request, response) -> {
+    };
+
+    /**
+     * 排除的精确路径、排除的目录、需要登录的路径
+     */
+    @Param({"/api/user/login", "/static/css/app.css", "/api/article/list"})
+    public String path;
+
+    private AuthFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new AuthFilter();
+        ReflectionTestUtils.setField(filter, "userActivityTracker", new UserActivityTracker());
+
+        User user = new User();
+        user.setId(1);
+        user.setUsername("jmh");
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(SessionUtil.SESSION_USER, user);
+
+        request = new MockHttpServletRequest("GET", path);
+        request.setSession(session);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authFilter() throws Exception {
+        // 每个请求都重新从 Session 解析登录用户
+        request.removeAttribute(SessionUtil.REQUEST_PRINCIPAL);
+        filter.doFilter(request, response, CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public boolean pathMatcher() {
+        return MATCHER.matches(path);
+    }
+
+    /**
+     * 改为前缀树之前的写法，作为对比基线
+     */
+    @Benchmark
+    public boolean legacyExcludeScan() {
+        for (String pattern : EXCLUDE_PATHS) {
+            if (pattern.endsWith("/**") && path.startsWith(pattern.replace("/**", ""))) {
+                return true;
+            }
+            if (path.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
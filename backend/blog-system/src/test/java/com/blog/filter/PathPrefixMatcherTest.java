@@ -0,0 +1,67 @@
+package com.blog.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathPrefixMatcherTest {
+
+    private final PathPrefixMatcher matcher = new PathPrefixMatcher(
+            "/api/user/login",
+            "/api/test/**",
+            "/api/article/list"
+    );
+
+    @Test
+    void exactPath() {
+        assertTrue(matcher.matches("/api/user/login"));
+        assertTrue(matcher.matches("/api/article/list"));
+        assertFalse(matcher.matches("/api/user"));
+        assertFalse(matcher.matches("/api/user/login2"));
+        assertFalse(matcher.matches("/api/user/login/extra"));
+    }
+
+    @Test
+    void directoryWithAndWithoutTrailingSegments() {
+        assertTrue(matcher.matches("/api/test"));
+        assertTrue(matcher.matches("/api/test/a"));
+        assertTrue(matcher.matches("/api/test/a/b/c"));
+    }
+
+    @Test
+    void siblingPrefixIsNotMatched() {
+        assertFalse(matcher.matches("/api/testing"));
+        assertFalse(matcher.matches("/api/tes"));
+        assertFalse(matcher.matches("/api/article/lists"));
+    }
+
+    @Test
+    void trailingSlash() {
+        // 目录模式下 /api/test/ 属于该目录；精确路径不忽略末尾的 /
+        assertTrue(matcher.matches("/api/test/"));
+        assertFalse(matcher.matches("/api/user/login/"));
+    }
+
+    @Test
+    void emptyAndNullPath() {
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+        assertFalse(matcher.matches("/"));
+    }
+
+    @Test
+    void rootDirectoryMatchesEverything() {
+        PathPrefixMatcher all = new PathPrefixMatcher("/**");
+        assertTrue(all.matches("/"));
+        assertTrue(all.matches("/api/anything"));
+        assertTrue(all.matches(""));
+    }
+
+    @Test
+    void invalidPatternIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PathPrefixMatcher("api/test"));
+        assertThrows(IllegalArgumentException.class, () -> new PathPrefixMatcher("/api/*/list"));
+    }
+}
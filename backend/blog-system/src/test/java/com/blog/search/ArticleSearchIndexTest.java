@@ -0,0 +1,166 @@
+package com.blog.search;
+
+import com.blog.dao.ArticleMapper;
+import com.blog.entity.Article;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArticleSearchIndexTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private final List<Article> articles = List.of(
+            article(1, "Redis 缓存设计", "缓存", "常见的缓存问题", "介绍缓存穿透和雪崩"),
+            article(2, "数据库索引", "MySQL", "索引原理", "redis 也可以做二级索引，读写锁保护"),
+            article(3, "C++ 模板", "C++", "泛型编程", "模板元编程"),
+            article(4, "C 语言指针", "C", "指针", "指针和数组"),
+            article(5, "锁", "并发", "", "")
+    );
+
+    @Test
+    void singleCjkCharacterMatchesInsideWords() {
+        ArticleSearchIndex index = load(articles, snapshot());
+
+        // "锁" 单独出现在文章5，在文章2中是 "读写锁" 的一部分
+        ArticleSearchIndex.Hits hits = index.search("锁", 0, 10);
+        assertEquals(2, hits.total());
+        assertEquals(List.of(5, 2), hits.ids());
+    }
+
+    @Test
+    void languageNamesWithSymbolsAreDistinct() {
+        ArticleSearchIndex index = load(articles, snapshot());
+
+        assertEquals(List.of(3), index.search("C++", 0, 10).ids());
+        assertEquals(List.of(4), index.search("c", 0, 10).ids());
+    }
+
+    @Test
+    void titleMatchOutranksContentMatch() {
+        ArticleSearchIndex index = load(articles, snapshot());
+
+        assertEquals(List.of(1, 2), index.search("redis", 0, 10).ids());
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        ArticleSearchIndex index = load(articles, snapshot());
+
+        assertEquals(List.of(2), index.search("Redis 索引", 0, 10).ids());
+        assertEquals(0, index.search("redis 不存在", 0, 10).total());
+    }
+
+    @Test
+    void pageKeepsTotalAndRankOrder() {
+        List<Article> many = new ArrayList<>();
+        for (int id = 1; id <= 5; id++) {
+            many.add(article(id, "java", "", "", ""));
+        }
+        ArticleSearchIndex index = load(many, snapshot());
+
+        // 得分相同时新文章在前
+        ArticleSearchIndex.Hits page = index.search("java", 2, 2);
+        assertEquals(5, page.total());
+        assertEquals(List.of(3, 2), page.ids());
+    }
+
+    @Test
+    void snapshotRoundTrip() {
+        Path path = snapshot();
+        ArticleSearchIndex first = load(articles, path);
+        first.snapshot();
+        assertTrue(Files.exists(path));
+
+        ArticleMapper mapper = mapperReturning(List.of());
+        ArticleSearchIndex restored = newIndex(mapper, path);
+        ReflectionTestUtils.invokeMethod(restored, "load");
+
+        // 从快照恢复后只补快照之后有变更的文章
+        verify(mapper).findForSearchIndex(eq(UPDATED), anyInt(), anyInt());
+        assertTrue(restored.isReady());
+        assertEquals(articles.size(), restored.documentCount());
+        for (String query : List.of("锁", "C++", "redis", "缓存", "Redis 索引")) {
+            assertEquals(first.search(query, 0, 10), restored.search(query, 0, 10), query);
+        }
+    }
+
+    @Test
+    void snapshotWithUnexpectedClassIsRejected() throws Exception {
+        Path path = snapshot();
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(Files.newOutputStream(path)))) {
+            out.writeObject(new ArrayList<>(List.of("not an index")));
+        }
+
+        ArticleMapper mapper = mapperReturning(articles);
+        ArticleSearchIndex index = newIndex(mapper, path);
+        ReflectionTestUtils.invokeMethod(index, "load");
+
+        // 快照被过滤器拒绝，重新全量建立索引
+        verify(mapper).findForSearchIndex(isNull(), eq(0), anyInt());
+        assertTrue(index.isReady());
+        assertEquals(articles.size(), index.documentCount());
+    }
+
+    private Path snapshot() {
+        return dir.resolve("search-index.bin");
+    }
+
+    private ArticleSearchIndex load(List<Article> docs, Path path) {
+        ArticleSearchIndex index = newIndex(mapperReturning(docs), path);
+        ReflectionTestUtils.invokeMethod(index, "load");
+        return index;
+    }
+
+    private static ArticleSearchIndex newIndex(ArticleMapper mapper, Path path) {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        ReflectionTestUtils.setField(index, "articleMapper", mapper);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "snapshotPath", path.toString());
+        ReflectionTestUtils.setField(index, "titleBoost", 3.0);
+        ReflectionTestUtils.setField(index, "tagsBoost", 2.5);
+        ReflectionTestUtils.setField(index, "summaryBoost", 1.5);
+        ReflectionTestUtils.setField(index, "contentBoost", 1.0);
+        return index;
+    }
+
+    private static ArticleMapper mapperReturning(List<Article> docs) {
+        ArticleMapper mapper = mock(ArticleMapper.class);
+        when(mapper.findForSearchIndex(any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> (int) invocation.getArgument(1) == 0 ? docs : List.of());
+        return mapper;
+    }
+
+    private static Article article(int id, String title, String tags, String summary, String content) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle(title);
+        article.setTags(tags);
+        article.setSummary(summary);
+        article.setContent(content);
+        article.setStatus(1);
+        article.setUpdateTime(UPDATED);
+        return article;
+    }
+}
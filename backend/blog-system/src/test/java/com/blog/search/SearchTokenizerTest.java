@@ -0,0 +1,55 @@
+package com.blog.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTokenizerTest {
+
+    @Test
+    void cjkIsIndexedAsUnigramsAndBigrams() {
+        assertEquals(List.of("搜", "搜索", "索", "索引", "引", "引擎", "擎"), SearchTokenizer.tokenize("搜索引擎"));
+    }
+
+    @Test
+    void cjkQueryUsesBigramsOnly() {
+        assertEquals(List.of("搜索", "索引", "引擎"), SearchTokenizer.tokenizeQuery("搜索引擎"));
+        // 单个字时用单字，能命中建索引时输出的单字
+        assertEquals(List.of("锁"), SearchTokenizer.tokenizeQuery("锁"));
+        assertTrue(SearchTokenizer.tokenize("读写锁").contains("锁"));
+    }
+
+    @Test
+    void latinWordsAreLowercased() {
+        assertEquals(List.of("spring", "boot3"), SearchTokenizer.tokenize("Spring Boot3"));
+        assertEquals(List.of("java", "并", "并发", "发"), SearchTokenizer.tokenize("Java并发"));
+    }
+
+    @Test
+    void trailingPlusAndHashStayInWord() {
+        assertEquals(List.of("c++", "c#", "c"), SearchTokenizer.tokenize("C++, C#, C"));
+        assertEquals(List.of("c++", "模", "模板", "板"), SearchTokenizer.tokenize("C++模板"));
+        // + 和 # 后面还有字母或数字时是分隔符
+        assertEquals(List.of("a", "b"), SearchTokenizer.tokenize("a+b"));
+        assertEquals(List.of("issue", "12"), SearchTokenizer.tokenize("issue#12"));
+        // 单独的 + 和 # 不是词
+        assertEquals(List.of("tag"), SearchTokenizer.tokenize("#tag ++"));
+    }
+
+    @Test
+    void punctuationAndOverlongWordsAreSkipped() {
+        assertEquals(List.of("a", "b"), SearchTokenizer.tokenize("a, b!"));
+        assertEquals(List.of("ok"), SearchTokenizer.tokenize("x".repeat(65) + " ok"));
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+        assertTrue(SearchTokenizer.tokenize("  ,。").isEmpty());
+    }
+
+    @Test
+    void supplementaryCharactersAreNotSplit() {
+        // 扩展B区汉字在 Java 中是代理对
+        assertEquals(List.of("𠀀", "𠀀字", "字"), SearchTokenizer.tokenize("𠀀字"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.blog.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LegacyMd5PasswordVerifierTest {
+
+    /**
+     * MD5("password")
+     */
+    private static final String PASSWORD_MD5 = "5f4dcc3b5aa765d61d8327deb882cf99";
+
+    private final LegacyMd5PasswordVerifier verifier = new LegacyMd5PasswordVerifier();
+
+    @Test
+    void matchesStoredMd5() {
+        assertTrue(verifier.supports(PASSWORD_MD5));
+        assertTrue(verifier.matches("password", PASSWORD_MD5));
+        assertTrue(verifier.matches("password", PASSWORD_MD5.toUpperCase()));
+        assertFalse(verifier.matches("Password", PASSWORD_MD5));
+    }
+
+    @Test
+    void alwaysNeedsRehash() {
+        assertTrue(verifier.needsRehash(PASSWORD_MD5));
+    }
+
+    @Test
+    void malformedStoredValueIsNotSupported() {
+        assertFalse(verifier.supports(null));
+        assertFalse(verifier.supports(""));
+        assertFalse(verifier.supports(PASSWORD_MD5.substring(1)));
+        assertFalse(verifier.supports(PASSWORD_MD5 + "0"));
+        assertFalse(verifier.supports("zf4dcc3b5aa765d61d8327deb882cf99"));
+        assertFalse(verifier.supports("pbkdf2-sha256$1000$c2FsdA$aGFzaA"));
+    }
+
+    @Test
+    void pbkdf2HashIsNotAcceptedAsMd5() {
+        String stored = new Pbkdf2PasswordHasher(1000).hash("password");
+        assertFalse(verifier.supports(stored));
+    }
+}
@@ -0,0 +1,71 @@
+package com.blog.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单线程的密码校验吞吐量，即每个核每秒能完成的登录校验次数，用来确定 blog.password.pbkdf2-iterations 和哈希线程池大小
+ * 运行：mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ *      java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) org.openjdk.jmh.Main PasswordHashBenchmark
+ * 用 -p iterations=100000,210000,600000 对比不同迭代次数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "jmh-benchmark-password";
+
+    /**
+     * 与 application.properties 中的默认值一致
+     */
+    @Param("210000")
+    public int iterations;
+
+    private Pbkdf2PasswordHasher pbkdf2;
+
+    private String pbkdf2Stored;
+
+    private LegacyMd5PasswordVerifier md5;
+
+    private String md5Stored;
+
+    @Setup
+    public void setUp() {
+        pbkdf2 = new Pbkdf2PasswordHasher(iterations);
+        pbkdf2Stored = pbkdf2.hash(PASSWORD);
+        md5 = new LegacyMd5PasswordVerifier();
+        md5Stored = DigestUtils.md5DigestAsHex(PASSWORD.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public boolean pbkdf2Matches() {
+        return pbkdf2.matches(PASSWORD, pbkdf2Stored);
+    }
+
+    /**
+     * 旧版 MD5 校验，作为对比基线
+     */
+    @Benchmark
+    public boolean legacyMd5Matches() {
+        return md5.matches(PASSWORD, md5Stored);
+    }
+}
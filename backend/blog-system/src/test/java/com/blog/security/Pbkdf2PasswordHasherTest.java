@@ -0,0 +1,89 @@
+package com.blog.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Pbkdf2PasswordHasherTest {
+
+    private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1000);
+
+    @Test
+    void roundTrip() {
+        String stored = hasher.hash("secret密码");
+        assertTrue(stored.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(hasher.supports(stored));
+        assertTrue(hasher.matches("secret密码", stored));
+        assertFalse(hasher.matches("secret", stored));
+        assertFalse(hasher.needsRehash(stored));
+    }
+
+    @Test
+    void saltIsRandomPerHash() {
+        assertNotEquals(hasher.hash("secret"), hasher.hash("secret"));
+    }
+
+    @Test
+    void matchesKnownVector() {
+        // PBKDF2-HMAC-SHA256("password", "salt", 4096, 32)
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        byte[] hash = HexFormat.of().parseHex("c5e478d59288c841aa530db6845c4c8d962893a001ce4e11a4963873aa98134a");
+        String stored = "pbkdf2-sha256$4096$" + encoder.encodeToString("salt".getBytes(StandardCharsets.UTF_8))
+                + "$" + encoder.encodeToString(hash);
+
+        assertTrue(hasher.matches("password", stored));
+        assertFalse(hasher.matches("Password", stored));
+    }
+
+    @Test
+    void needsRehashWhenIterationsAreRaised() {
+        String stored = hasher.hash("secret");
+        Pbkdf2PasswordHasher stronger = new Pbkdf2PasswordHasher(2000);
+
+        // 迭代次数随哈希保存，调高配置后旧哈希仍能校验
+        assertTrue(stronger.matches("secret", stored));
+        assertTrue(stronger.needsRehash(stored));
+        assertFalse(stronger.needsRehash(stronger.hash("secret")));
+        // 调低配置不会把更强的哈希降级
+        assertFalse(hasher.needsRehash(stronger.hash("secret")));
+    }
+
+    @Test
+    void malformedStoredHashIsRejected() {
+        String[] malformed = {
+                "pbkdf2-sha256$",
+                "pbkdf2-sha256$1000$c2FsdA",
+                "pbkdf2-sha256$1000$c2FsdA$aGFzaA$extra",
+                "pbkdf2-sha256$abc$c2FsdA$aGFzaA",
+                "pbkdf2-sha256$0$c2FsdA$aGFzaA",
+                "pbkdf2-sha256$-1$c2FsdA$aGFzaA",
+                "pbkdf2-sha256$1000$$aGFzaA",
+                "pbkdf2-sha256$1000$c2FsdA$",
+                "pbkdf2-sha256$1000$!!!!$aGFzaA",
+        };
+        for (String stored : malformed) {
+            assertFalse(hasher.matches("secret", stored), stored);
+            assertTrue(hasher.needsRehash(stored), stored);
+        }
+
+        // 格式正确但摘要长度不对
+        assertFalse(hasher.matches("secret", "pbkdf2-sha256$1000$c2FsdA$aGFzaA"));
+
+        assertFalse(hasher.supports(null));
+        assertFalse(hasher.supports("5f4dcc3b5aa765d61d8327deb882cf99"));
+        assertFalse(hasher.matches("secret", null));
+        assertFalse(hasher.matches("secret", "5f4dcc3b5aa765d61d8327deb882cf99"));
+    }
+
+    @Test
+    void tooFewIterationsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Pbkdf2PasswordHasher(999));
+    }
+}
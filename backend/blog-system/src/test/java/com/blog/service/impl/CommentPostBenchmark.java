@@ -0,0 +1,94 @@
+package com.blog.service.impl;
+
+import com.blog.BlogSystemApplication;
+import com.blog.entity.Comment;
+import com.blog.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发表评论的吞吐量（createComment：一次父评论读取 + 一次带自增主键回填的插入）
+ * 需要 application.properties 中配置的数据库可以连接，使用已有的文章和用户，结束后删除本次插入的评论
+ * 运行：mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ *      java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) org.openjdk.jmh.Main CommentPostBenchmark
+ * 与改动前对比时，把本类复制到改动前的版本上用同样的参数运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class CommentPostBenchmark {
+
+    private static final String CONTENT = "jmh comment post benchmark";
+
+    @Param("1")
+    public int articleId;
+
+    @Param("1")
+    public int userId;
+
+    /**
+     * true 时作为回复发表（多一次父评论读取）
+     */
+    @Param({"false", "true"})
+    public boolean reply;
+
+    private ConfigurableApplicationContext context;
+
+    private CommentService commentService;
+
+    private Integer parentId = 0;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlogSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        commentService = context.getBean(CommentService.class);
+
+        if (reply) {
+            parentId = commentService.createComment(newComment(0), "127.0.0.1", "jmh").getId();
+        }
+    }
+
+    @Benchmark
+    public Integer postComment() {
+        return commentService.createComment(newComment(parentId), "127.0.0.1", "jmh").getId();
+    }
+
+    private Comment newComment(Integer parent) {
+        Comment comment = new Comment();
+        comment.setArticleId(articleId);
+        comment.setUserId(userId);
+        comment.setParentId(parent);
+        comment.setContent(CONTENT);
+        return comment;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update(
+                "DELETE FROM comment WHERE article_id = ? AND user_agent = 'jmh' AND content = ?", articleId, CONTENT);
+        context.close();
+    }
+}
@@ -0,0 +1,104 @@
+package com.blog.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SignedTokenTest {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final SignedToken signer = new SignedToken(secret("0123456789abcdef0123456789abcdef"));
+
+    @Test
+    void roundTrip() {
+        String token = signer.issue(42, 1, NOW + 60_000);
+        assertEquals(45, token.length());
+
+        SignedToken.Claims claims = signer.verify(token, NOW);
+        assertNotNull(claims);
+        assertEquals(42, claims.userId());
+        assertEquals(1, claims.role());
+        assertEquals(NOW + 60_000, claims.expiresAt());
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = signer.issue(42, 0, NOW + 60_000);
+        // 改动角色所在的字符
+        assertNull(signer.verify(replace(token, 6, flip(token.charAt(6))), NOW));
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String token = signer.issue(42, 0, NOW + 60_000);
+        assertNull(signer.verify(replace(token, 30, flip(token.charAt(30))), NOW));
+    }
+
+    @Test
+    void otherSecretIsRejected() {
+        String token = new SignedToken(secret("fedcba9876543210fedcba9876543210")).issue(42, 0, NOW + 60_000);
+        assertNull(signer.verify(token, NOW));
+    }
+
+    @Test
+    void nonCanonicalBase64IsRejected() {
+        String token = signer.issue(42, 1, NOW + 60_000);
+        // 每段最后一个字符的低4位是填充位，置1后解码出的字节不变，但写法不唯一，必须拒绝
+        int payloadEnd = 21;
+        int signatureEnd = 44;
+        assertNull(signer.verify(replace(token, payloadEnd, setLowBit(token.charAt(payloadEnd))), NOW));
+        assertNull(signer.verify(replace(token, signatureEnd, setLowBit(token.charAt(signatureEnd))), NOW));
+    }
+
+    @Test
+    void wrongLengthOrFormatIsRejected() {
+        String token = signer.issue(42, 1, NOW + 60_000);
+        assertNull(signer.verify(null, NOW));
+        assertNull(signer.verify("", NOW));
+        assertNull(signer.verify(token.substring(1), NOW));
+        assertNull(signer.verify(token + "A", NOW));
+        assertNull(signer.verify(token.replace('.', 'A'), NOW));
+        assertNull(signer.verify(replace(token, 3, '+'), NOW));
+        assertNull(signer.verify(replace(token, 3, '中'), NOW));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = signer.issue(42, 1, NOW + 60_000);
+        assertNotNull(signer.verify(token, NOW + 59_999));
+        assertNull(signer.verify(token, NOW + 60_000));
+        assertNull(signer.verify(token, NOW + 120_000));
+    }
+
+    @Test
+    void shortSecretIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SignedToken(secret("too-short")));
+    }
+
+    private static byte[] secret(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String replace(String token, int index, char c) {
+        return token.substring(0, index) + c + token.substring(index + 1);
+    }
+
+    /**
+     * 换成最高位不同的字符，解码出的字节一定改变
+     */
+    private static char flip(char c) {
+        return ALPHABET.charAt(ALPHABET.indexOf(c) ^ 32);
+    }
+
+    private static char setLowBit(char c) {
+        return ALPHABET.charAt(ALPHABET.indexOf(c) | 1);
+    }
+}